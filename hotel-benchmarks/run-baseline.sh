@@ -0,0 +1,14 @@
+#!/bin/sh
+# Builds the hotel module and the benchmarks then runs every benchmark with the settings the baseline is recorded
+# with. Extra arguments are passed to JMH, eg a benchmark name regex: ./run-baseline.sh AvailabilityBenchmark
+set -e
+cd "$(dirname "$0")"
+
+mvn -B -q -f ../hotel-reservation-spring/pom.xml install -DskipTests
+mvn -B -q package
+
+mkdir -p baseline
+java -jar target/benchmarks.jar \
+    -prof gc \
+    -rf json -rff "baseline/$(git rev-parse --short HEAD).json" \
+    "$@"
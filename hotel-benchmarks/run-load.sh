@@ -0,0 +1,43 @@
+#!/bin/sh
+# Starts the hotel server in each mode and runs the same closed loop load against each at increasing connection
+# counts. Modes are platform (tomcat worker pool), virtual (app.threads.virtual) and reactive (the reactive profile).
+# Writes one csv line per run to baseline/load-<commit>.csv.
+# Extra arguments replace the connection counts, eg: MODES="platform reactive" ./run-load.sh 100 1000
+set -e
+cd "$(dirname "$0")"
+
+URL=${URL:-"http://localhost:8080/users/allRoom?after=0&size=50"}
+SECONDS_PER_RUN=${SECONDS_PER_RUN:-30}
+CONNECTIONS=${*:-"50 200 800 3200"}
+MODES=${MODES:-"platform virtual reactive"}
+# the same tomcat limits for both modes, only the threads requests run on differ.
+SERVER_ARGS="--server.tomcat.threads.max=200 --server.tomcat.max-connections=20000 --server.tomcat.accept-count=1000"
+
+mvn -B -q -f ../hotel-reservation-spring/pom.xml install -DskipTests
+mvn -B -q package
+
+mkdir -p baseline
+OUT="baseline/load-$(git rev-parse --short HEAD).csv"
+echo "label,connections,requests,errors,requestsPerSecond,p50Ms,p99Ms,maxMs" > "$OUT"
+
+for MODE in $MODES; do
+    case $MODE in
+        virtual) MODE_ARGS="--app.threads.virtual=true" ;;
+        reactive) MODE_ARGS="--spring.profiles.active=reactive" ;;
+        *) MODE_ARGS="" ;;
+    esac
+    java -Xms1g -Xmx1g -jar ../hotel-reservation-spring/target/hotel-0.0.1-SNAPSHOT-exec.jar \
+        $MODE_ARGS $SERVER_ARGS > "target/server-$MODE.log" 2>&1 &
+    SERVER=$!
+    until curl -sf "$URL" > /dev/null; do sleep 1; done
+
+    # warm up, not recorded
+    java -cp target/benchmarks.jar com.demo.load.LoadGenerator "$URL" 50 10 > /dev/null
+    for N in $CONNECTIONS; do
+        java -cp target/benchmarks.jar com.demo.load.LoadGenerator "$URL" "$N" "$SECONDS_PER_RUN" \
+            "$MODE" | tee -a "$OUT"
+    done
+
+    kill $SERVER
+    wait $SERVER || true
+done
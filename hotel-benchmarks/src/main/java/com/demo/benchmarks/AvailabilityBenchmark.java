@@ -0,0 +1,96 @@
+package com.demo.benchmarks;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room availability lookups against an index holding a year of bookings.
+ *
+ * <p>Rooms are split into hotels of {@link #ROOMS_PER_HOTEL}. The bookings and the stays searched for come from a
+ * fixed seed so every run sees the same data.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    private static final int ROOMS_PER_HOTEL = 50;
+    private static final int STAYS = 1024;
+
+    @Param({"100", "10000"})
+    public int rooms;
+
+    private RoomAvailabilityIndex index;
+
+    private long[] stayRooms;
+    private long[] stayHotels;
+    private LocalDate[] stayCheckIns;
+    private LocalDate[] stayCheckOuts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = FixedTimeProvider.TODAY;
+        index = new RoomAvailabilityIndex(new FixedTimeProvider());
+        for (long room = 0; room < rooms; room++) {
+            index.registerRoom(room / ROOMS_PER_HOTEL, room);
+            // roughly half the nights of the first year are booked, in stays of 1 to 7 nights.
+            LocalDate night = today.plusDays(random.nextInt(7));
+            while (night.isBefore(today.plusDays(365))) {
+                int length = 1 + random.nextInt(7);
+                index.markBooked(room, night, night.plusDays(length));
+                night = night.plusDays(length * 2L);
+            }
+        }
+
+        stayRooms = new long[STAYS];
+        stayHotels = new long[STAYS];
+        stayCheckIns = new LocalDate[STAYS];
+        stayCheckOuts = new LocalDate[STAYS];
+        for (int i = 0; i < STAYS; i++) {
+            stayRooms[i] = random.nextInt(rooms);
+            stayHotels[i] = stayRooms[i] / ROOMS_PER_HOTEL;
+            stayCheckIns[i] = today.plusDays(random.nextInt(360));
+            stayCheckOuts[i] = stayCheckIns[i].plusDays(1 + random.nextInt(7));
+        }
+    }
+
+    private int nextStay() {
+        next = (next + 1) & (STAYS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        int i = nextStay();
+        return index.isAvailable(stayRooms[i], stayCheckIns[i], stayCheckOuts[i]);
+    }
+
+    @Benchmark
+    public List<Long> availableRoomsInHotel() {
+        int i = nextStay();
+        return index.availableRooms(stayHotels[i], stayCheckIns[i], stayCheckOuts[i]);
+    }
+
+    /**
+     * The booking engine path, a claim that is released again so the index does not fill up.
+     */
+    @Benchmark
+    public boolean claimAndRelease() {
+        int i = nextStay();
+        boolean claimed = index.claim(stayRooms[i], stayCheckIns[i], stayCheckOuts[i]);
+        if (claimed) {
+            index.release(stayRooms[i], stayCheckIns[i], stayCheckOuts[i]);
+        }
+        return claimed;
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.benchmarks;
+
+import com.demo.domain.Booking;
+import com.demo.domain.RoomType;
+import com.demo.domain.pricing.PriceBreakdown;
+import com.demo.domain.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice totals, computed on every booking response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class BookingPricingBenchmark {
+
+    @Param({"1", "7", "28"})
+    public int nights;
+
+    @Param({"false", "true"})
+    public boolean lateCheckout;
+
+    private Booking booking;
+    private final PriceBreakdown breakdown = new PriceBreakdown();
+
+    @Setup
+    public void setUp() {
+        booking = Fixtures.booking(RoomType.Economy, nights, lateCheckout);
+    }
+
+    @Benchmark
+    public BigDecimal totalCostIncludingTax() {
+        return booking.getTotalCostIncludingTax();
+    }
+
+    @Benchmark
+    public BigDecimal totalCostExcludingTax() {
+        return booking.getTotalCostExcludingTax();
+    }
+
+    // every invoice getter the booking response serializes, priced once.
+    @Benchmark
+    public BigDecimal invoiceLines() {
+        return booking.getTotalRoomCost().add(booking.getLateCheckoutFee()).add(booking.getChargeableLateCheckoutFee())
+                .add(booking.getTotalCostExcludingTax()).add(booking.getTaxableAmount())
+                .add(booking.getTotalCostIncludingTax());
+    }
+
+    @Benchmark
+    public long priceBreakdown() {
+        return PricingEngine.price(booking, breakdown).getTotalIncludingTaxCents();
+    }
+
+    // the quoting path, room prices already held in cents.
+    @Benchmark
+    public long priceFromCents() {
+        return PricingEngine.price(RoomType.Economy, 2380, 2050, nights, lateCheckout, breakdown)
+                .getTotalIncludingTaxCents();
+    }
+}
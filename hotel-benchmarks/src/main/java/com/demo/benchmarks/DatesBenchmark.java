@@ -0,0 +1,46 @@
+package com.demo.benchmarks;
+
+import com.demo.domain.Dates;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stay length and validation, run on every search and booking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class DatesBenchmark {
+
+    private Dates valid;
+    private Dates checkInPast;
+
+    @Setup
+    public void setUp() {
+        valid = new Dates(FixedTimeProvider.TODAY.plusDays(3), FixedTimeProvider.TODAY.plusDays(10),
+                LocalTime.of(10, 0), false, true);
+        checkInPast = new Dates(FixedTimeProvider.TODAY.minusDays(1), FixedTimeProvider.TODAY.plusDays(10),
+                LocalTime.of(10, 0), false, true);
+    }
+
+    @Benchmark
+    public long totalNights() {
+        return valid.totalNights();
+    }
+
+    @Benchmark
+    public Optional<Dates.ValidationError> validate() {
+        return valid.validate(FixedTimeProvider.TODAY);
+    }
+
+    @Benchmark
+    public Optional<Dates.ValidationError> validateInvalid() {
+        return checkInPast.validate(FixedTimeProvider.TODAY);
+    }
+}
@@ -0,0 +1,24 @@
+package com.demo.benchmarks;
+
+import com.demo.TimeProvider;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pins "now" so every run benchmarks the same dates.
+ */
+public class FixedTimeProvider extends TimeProvider {
+
+    public static final LocalDate TODAY = LocalDate.of(2021, 1, 4);
+
+    @Override
+    public LocalDateTime localDateTime() {
+        return TODAY.atTime(12, 0);
+    }
+
+    @Override
+    public LocalDate localDate() {
+        return TODAY;
+    }
+}
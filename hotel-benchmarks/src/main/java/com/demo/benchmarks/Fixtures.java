@@ -0,0 +1,37 @@
+package com.demo.benchmarks;
+
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Hotel hotel() {
+        return new Hotel("The Grand Hotel",
+                new Address("The Grand Hotel", "166 Albert Road", null, State.VIC, "Melbourne", new Postcode("3000")),
+                4, "grandhotel.com.au",
+                LocalTime.of(9, 0), LocalTime.of(20, 0), LocalTime.of(12, 0), LocalTime.of(14, 0),
+                BigDecimal.valueOf(45.60));
+    }
+
+    static Booking booking(RoomType roomType, int nights, boolean lateCheckout) {
+        Room room = new Room("G1", roomType, 2, BigDecimal.valueOf(105.45));
+        hotel().addRoom(room);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setDates(new Dates(FixedTimeProvider.TODAY.plusDays(7), FixedTimeProvider.TODAY.plusDays(7 + nights),
+                LocalTime.of(10, 0), lateCheckout, true));
+        return booking;
+    }
+}
@@ -0,0 +1,44 @@
+package com.demo.benchmarks;
+
+import com.demo.domain.Hotel;
+import com.demo.persistance.predicates.HotelPredicates;
+import com.querydsl.core.types.Predicate;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check in times offered on the booking page and the location search predicate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class HotelBenchmark {
+
+    private Hotel hotel;
+
+    @Setup
+    public void setUp() {
+        hotel = Fixtures.hotel();
+    }
+
+    @Benchmark
+    public List<LocalTime> allowableCheckInTimes() {
+        return hotel.allowableCheckInTimes();
+    }
+
+    @Benchmark
+    public Predicate byLocationAllFields() {
+        return HotelPredicates.byLocation("VIC", "Melbourne", "3000");
+    }
+
+    @Benchmark
+    public Predicate byLocationNoFields() {
+        return HotelPredicates.byLocation(null, null, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.benchmarks;
+
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.dto.HotelDTO;
+import com.demo.dto.RoomDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between {@code RoomDTO} and {@code Room}, once per row of an admin write. The {@code beanUtils} methods
+ * are the reflective copy the hand written mappers replaced, kept as the reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class RoomMappingBenchmark {
+
+    private RoomDTO dto;
+    private Room room;
+
+    @Setup
+    public void setUp() {
+        room = Fixtures.booking(RoomType.Business, 3, false).getRoom();
+        room.setId(7L);
+        room.getHotel().setId(3L);
+
+        dto = new RoomDTO();
+        HotelDTO hotel = new HotelDTO();
+        hotel.setId(3L);
+        dto.setHotel(hotel);
+        dto.setRoomNumber("G1");
+        dto.setRoomType(RoomType.Business);
+        dto.setBeds(2);
+        dto.setCostPerNight(BigDecimal.valueOf(105.45));
+    }
+
+    @Benchmark
+    public Room toRoom() {
+        return dto.toRoom();
+    }
+
+    @Benchmark
+    public Room toRoomBeanUtils() {
+        Room copy = new Room();
+        BeanUtils.copyProperties(dto, copy, "id", "hotel");
+        return copy;
+    }
+
+    @Benchmark
+    public RoomDTO fromRoom() {
+        return RoomDTO.from(room);
+    }
+
+    @Benchmark
+    public RoomDTO fromRoomBeanUtils() {
+        RoomDTO copy = new RoomDTO();
+        BeanUtils.copyProperties(room, copy, "hotel");
+        return copy;
+    }
+}
@@ -0,0 +1,125 @@
+package com.demo.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed loop HTTP load against a running hotel server: {@code connections} clients each send a request, wait for
+ * the response and send the next one, for a fixed time. Prints one csv line per run with the throughput and latency
+ * percentiles, see {@code run-load.sh}.
+ *
+ * <p>Clients run on virtual threads so the generator itself can hold thousands of connections open.</p>
+ *
+ * <pre>java -cp target/benchmarks.jar com.demo.load.LoadGenerator &lt;url&gt; &lt;connections&gt; &lt;seconds&gt; [label]</pre>
+ */
+public final class LoadGenerator {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: LoadGenerator <url> <connections> <seconds> [label]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int connections = Integer.parseInt(args[1]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        String label = args.length > 3 ? args[3] : "";
+
+        Result result = run(uri, connections, duration);
+        System.out.printf("%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f%n", label, connections, result.requests, result.errors,
+                result.requests / (double) duration.toSeconds(),
+                millis(result.percentile(0.50)), millis(result.percentile(0.99)), millis(result.percentile(1.0)));
+    }
+
+    static Result run(URI uri, int connections, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build();
+        long end = System.nanoTime() + duration.toNanos();
+
+        List<Future<Client>> clients = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                clients.add(executor.submit(() -> {
+                    Client c = new Client();
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                c.errors++;
+                            }
+                        } catch (Exception e) {
+                            c.errors++;
+                        }
+                        c.record(System.nanoTime() - start);
+                    }
+                    return c;
+                }));
+            }
+        }
+
+        Result result = new Result();
+        for (Future<Client> c : clients) {
+            result.add(c.get());
+        }
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Client {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    static final class Result {
+        private long[] latencies = new long[0];
+        long requests;
+        long errors;
+
+        void add(Client client) {
+            int from = latencies.length;
+            latencies = Arrays.copyOf(latencies, from + client.count);
+            System.arraycopy(client.latencies, 0, latencies, from, client.count);
+            requests += client.count;
+            errors += client.errors;
+        }
+
+        long percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+
 
 @SpringBootApplication
 public class HotelApplication {
@@ -18,4 +21,17 @@ public class HotelApplication {
 		return new TimeProvider();
 	}
 
+	/**
+	 * Lazy associations that were not fetched are written as just their id rather than being loaded during
+	 * serialization, open in view is off so each endpoint picks its own fetch plan.
+	 */
+	@Bean
+	public Module hibernateModule() {
+		Hibernate5Module module = new Hibernate5Module();
+		module.enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+		// User.tempId is @Transient but the UI still needs it in the json.
+		module.disable(Hibernate5Module.Feature.USE_TRANSIENT_ANNOTATION);
+		return module;
+	}
+
 }
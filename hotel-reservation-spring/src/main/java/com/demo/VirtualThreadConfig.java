@@ -0,0 +1,39 @@
+package com.demo;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request, and the repository calls it makes, on its own virtual thread instead of Tomcat's bounded
+ * worker pool. Turned on with {@code app.threads.virtual=true}.
+ *
+ * <p>A request blocked on JDBC then parks its virtual thread rather than holding a platform thread, so the number of
+ * open requests is bounded by {@code server.tomcat.max-connections} and the connection pool rather than
+ * {@code server.tomcat.threads.max}. Database work is still limited to {@code spring.datasource.hikari.maximum-pool-size}
+ * connections at a time.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Also used for async MVC requests and {@code @Async} methods.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -3,11 +3,18 @@ package com.demo.admin;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,75 +25,119 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.demo.catalog.CatalogService;
 import com.demo.domain.Hotel;
 import com.demo.domain.Room;
+import com.demo.dto.CacheStatsDTO;
+import com.demo.dto.CursorPage;
 import com.demo.dto.RoomDTO;
+import com.demo.dto.RoomSummaryDTO;
+import com.demo.dto.WriteConflictStatsDTO;
 import com.demo.exceptions.NotFoundException;
+import com.demo.exceptions.RoomInUseException;
+import com.demo.persistance.OptimisticRetry;
 import com.demo.persistance.RoomRepository;
 import com.demo.persistance.predicates.RoomPredicates;
 
+  //replaced by the routes in com.demo.reactive under the reactive profile, which call these methods
+  @Profile("!reactive")
   @RequestMapping(value = "/admin")
   @RestController
   public class AdminController {
 
 	  private RoomRepository roomRepository;
+	  private CatalogService catalogService;
+	  private OptimisticRetry optimisticRetry;
 
-	  public AdminController(RoomRepository roomRepository) {
+	  public AdminController(RoomRepository roomRepository, CatalogService catalogService,
+	                         OptimisticRetry optimisticRetry) {
 	        this.roomRepository = roomRepository;
+	        this.catalogService = catalogService;
+	        this.optimisticRetry = optimisticRetry;
 	   }
 	  
 	  private static final Logger log = LoggerFactory.getLogger("AdminController");
-		/*
-		 * private Sort getSort(String sort) { switch (sort) { case "lowest": return new
-		 * Sort(Sort.Direction.ASC, "price"); case "highest": return new
-		 * Sort(Sort.Direction.DESC, "price"); case "name": return new
-		 * Sort(Sort.Direction.ASC, "name"); default: return null; } }
-		 */
 
+		//the room's hotel is given by id, eg "hotel": {"id": 1}
 		@PostMapping(value = "/createRoom")
-		public ResponseEntity addRoom(@RequestBody RoomDTO roomDTO) {
-			RoomDTO dto = new RoomDTO();
-			Room room = dto.getRoom(roomDTO);
-			
-			if(room !=null ) {
-				roomRepository.save(room);
+		public ResponseEntity addRoom(@RequestBody RoomDTO roomDTO) throws NotFoundException {
+			Room room = roomDTO.toRoom();
+			if (room == null) {
+				return ResponseEntity.badRequest().build();
+			}
+			Long hotelId = roomDTO.hotelId();
+			if (hotelId != null) {
+				room.setHotel(catalogService.findHotel(hotelId).orElseThrow(() -> new NotFoundException("" + hotelId)));
 			}
-			return ResponseEntity.ok(room);
-			
+			return ResponseEntity.ok(RoomDTO.from(catalogService.saveRoom(room)));
 		}
 	
+		  //send back the version the room was read at to be told of a concurrent change (409), without it
+		  //the update is retried on top of the concurrent one
 		  @PutMapping("/{id}")
-		  ResponseEntity updateRoom(@RequestBody RoomDTO newroom, @PathVariable Long id) {
-			  RoomDTO dto = new RoomDTO();
-				Room room = dto.getRoom(newroom);			
-		     Optional<Room> existingRoom =  roomRepository.findById(id);
-		      if (existingRoom.isPresent() ) {
-		    	  room = dto.copyRoom(dto, existingRoom.get());
-		    	  
-		    		return ResponseEntity.ok(existingRoom.get()); 
-		      }
-		    return ResponseEntity.notFound().build(); 
+		  public ResponseEntity updateRoom(@RequestBody RoomDTO newroom, @PathVariable Long id) {
+			  Room changes = newroom.toRoom();
+			  if (changes == null) {
+				  return ResponseEntity.badRequest().build();
+			  }
+			  Supplier<Optional<Room>> update = () -> catalogService.updateRoom(id, changes, newroom.getVersion());
+			  try {
+				  Optional<Room> updated = newroom.getVersion() == null
+						  ? optimisticRetry.execute(OptimisticRetry.ROOM_UPDATE, update) : update.get();
+				  return updated.map(RoomDTO::from).map(ResponseEntity::ok)
+						  .orElseGet(() -> ResponseEntity.notFound().build());
+			  } catch (OptimisticLockingFailureException e) {
+				  return ResponseEntity.status(HttpStatus.CONFLICT).body("Room " + id + " was changed concurrently");
+			  }
 		  }
 		  
 		  @DeleteMapping("/deleteRoom/{id}")
-		  public ResponseEntity deleteRoom(@PathVariable Long id) {
-			  roomRepository.deleteById(id);		
+		  public ResponseEntity deleteRoom(@PathVariable Long id) throws RoomInUseException {
+			  catalogService.deleteRoom(id);
 			  return ResponseEntity.ok().build();
 		  }
 		
 		  @GetMapping("/getRoom/{id}")
-		  Room one(@PathVariable Long id) throws NotFoundException {
+		  public Room one(@PathVariable Long id) throws NotFoundException {
 		    
-		    return roomRepository.findById(id)
+		    return catalogService.findRoom(id)
 		      .orElseThrow(() -> new NotFoundException(""+id));
 		  }
 		  	  
 		  @GetMapping("/all")
-		  List<Room> all() {
-		    return (List<Room>) roomRepository.findAll();
+		  public CursorPage<RoomSummaryDTO> all(@RequestParam(defaultValue = "0") long after,
+				  @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+			  int pageSize = CursorPage.clampSize(size);
+			  return CursorPage.of(roomRepository.findSummariesAfter(after, PageRequest.of(0, pageSize)),
+					  pageSize, RoomSummaryDTO::getId);
+		  }
+
+		  @PostMapping("/createHotel")
+		  public ResponseEntity addHotel(@Valid @RequestBody Hotel hotel) {
+			  return ResponseEntity.ok(catalogService.createHotel(hotel));
+		  }
+
+		  @PutMapping("/updateHotel/{id}")
+		  public ResponseEntity updateHotel(@Valid @RequestBody Hotel hotel, @PathVariable Long id) {
+			  return catalogService.updateHotel(id, hotel)
+					  .map(ResponseEntity::ok)
+					  .orElseGet(() -> ResponseEntity.notFound().build());
+		  }
+
+		  //hit/miss counters of the catalog caches
+		  @GetMapping("/cacheStats")
+		  public List<CacheStatsDTO> cacheStats() {
+			  return catalogService.cacheStats();
+		  }
+
+		  //optimistic lock conflicts and retries per kind of write
+		  @GetMapping("/writeConflicts")
+		  public List<WriteConflictStatsDTO> writeConflicts() {
+			  return optimisticRetry.stats();
 		  }
 		  
 	
@@ -0,0 +1,64 @@
+package com.demo.availability;
+
+import com.demo.TimeProvider;
+import com.demo.domain.RoomNightId;
+import com.demo.persistance.RoomNightRepository;
+import com.demo.persistance.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Populates the {@link RoomAvailabilityIndex} from the database once the application has started, after any
+ * {@code CommandLineRunner} has inserted its data.
+ *
+ * <p>Only the {@code RoomNight} ledger rows within the index horizon are read.</p>
+ */
+@Component
+public class AvailabilityIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger("AvailabilityIndexLoader");
+
+    private final RoomRepository roomRepository;
+    private final RoomNightRepository roomNightRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final TimeProvider timeProvider;
+
+    public AvailabilityIndexLoader(RoomRepository roomRepository, RoomNightRepository roomNightRepository,
+                                   RoomAvailabilityIndex availabilityIndex, TimeProvider timeProvider) {
+        this.roomRepository = roomRepository;
+        this.roomNightRepository = roomNightRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.timeProvider = timeProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        int rooms = 0;
+        for (RoomRepository.RoomHotelId ids : roomRepository.findAllRoomHotelIds()) {
+            availabilityIndex.registerRoom(ids.getHotelId(), ids.getRoomId());
+            rooms++;
+        }
+
+        LocalDate today = timeProvider.localDate();
+        long nights = 0;
+        try (Stream<RoomNightId> booked = roomNightRepository.streamNightsBetween(today,
+                today.plusDays(RoomAvailabilityIndex.HORIZON_NIGHTS))) {
+            Iterator<RoomNightId> iterator = booked.iterator();
+            while (iterator.hasNext()) {
+                RoomNightId night = iterator.next();
+                availabilityIndex.markBooked(night.getRoomId(), night.getNight(), night.getNight().plusDays(1));
+                nights++;
+            }
+        }
+        log.info("Availability index loaded for {} rooms with {} booked nights", rooms, nights);
+    }
+}
@@ -0,0 +1,158 @@
+package com.demo.availability;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size bitset tracking the booked nights of a single {@code Room}.
+ *
+ * <p>Bit {@code i} represents the night starting on epoch day {@code originDay + i}. The window rolls forward lazily
+ * on access so nights in the past are dropped and the horizon always starts from today.</p>
+ *
+ * <p>All methods take absolute epoch days and are synchronized on this instance, so callers contending for the same
+ * room serialize while other rooms are unaffected.</p>
+ */
+final class NightBitmap {
+
+    private final long[] words;
+    private final int nights;
+    private long originDay;
+
+    NightBitmap(long originDay, int nights) {
+        this.originDay = originDay;
+        this.nights = nights;
+        this.words = new long[(nights + 63) >>> 6];
+    }
+
+    /**
+     * @return {@code true} if no night in {@code [fromDay, toDay)} is booked.
+     */
+    synchronized boolean isFree(long today, long fromDay, long toDay) {
+        roll(today);
+        int from = clip(fromDay);
+        int to = clip(toDay);
+        return from >= to || !anySet(from, to);
+    }
+
+    /**
+     * Atomically checks the nights {@code [fromDay, toDay)} are free and marks them as booked.
+     *
+     * @return {@code false} if any of the nights were already booked, in which case nothing is changed.
+     */
+    synchronized boolean claim(long today, long fromDay, long toDay) {
+        if (!isFree(today, fromDay, toDay)) {
+            return false;
+        }
+        set(today, fromDay, toDay);
+        return true;
+    }
+
+    /**
+     * Marks the nights {@code [fromDay, toDay)} as booked. Nights outside the window are ignored.
+     */
+    synchronized void set(long today, long fromDay, long toDay) {
+        roll(today);
+        int from = clip(fromDay);
+        int to = clip(toDay);
+        for (int word = firstWord(from); from < to && word <= lastWord(to); word++) {
+            words[word] |= mask(word, from, to);
+        }
+    }
+
+    /**
+     * Marks the nights {@code [fromDay, toDay)} as free. Nights outside the window are ignored.
+     */
+    synchronized void clear(long today, long fromDay, long toDay) {
+        roll(today);
+        int from = clip(fromDay);
+        int to = clip(toDay);
+        for (int word = firstWord(from); from < to && word <= lastWord(to); word++) {
+            words[word] &= ~mask(word, from, to);
+        }
+    }
+
+    /**
+     * @return The number of free nights directly before {@code fromDay}, counting at most {@code limit}.
+     */
+    synchronized int freeBefore(long today, long fromDay, int limit) {
+        roll(today);
+        int count = 0;
+        for (int night = clip(fromDay) - 1; night >= 0 && count < limit && !isSet(night); night--) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of free nights from {@code fromDay} on, counting at most {@code limit}.
+     */
+    synchronized int freeFrom(long today, long fromDay, int limit) {
+        roll(today);
+        int count = 0;
+        for (int night = clip(fromDay); night < nights && count < limit && !isSet(night); night++) {
+            count++;
+        }
+        return count;
+    }
+
+    private boolean isSet(int night) {
+        return (words[night >>> 6] & (1L << (night & 63))) != 0;
+    }
+
+    private boolean anySet(int from, int to) {
+        for (int word = firstWord(from); word <= lastWord(to); word++) {
+            if ((words[word] & mask(word, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shifts the window so it starts at {@code today}, dropping the nights that have passed.
+     */
+    private void roll(long today) {
+        long elapsed = today - originDay;
+        if (elapsed <= 0) {
+            return;
+        }
+        originDay = today;
+        if (elapsed >= nights) {
+            Arrays.fill(words, 0L);
+            return;
+        }
+        int wordShift = (int) (elapsed >>> 6);
+        int bitShift = (int) (elapsed & 63);
+        for (int i = 0; i < words.length; i++) {
+            int src = i + wordShift;
+            long lo = src < words.length ? words[src] : 0L;
+            long hi = src + 1 < words.length ? words[src + 1] : 0L;
+            words[i] = bitShift == 0 ? lo : (lo >>> bitShift) | (hi << (64 - bitShift));
+        }
+    }
+
+    private int clip(long day) {
+        return (int) Math.max(0, Math.min(nights, day - originDay));
+    }
+
+    private static int firstWord(int from) {
+        return from >>> 6;
+    }
+
+    private static int lastWord(int to) {
+        return (to - 1) >>> 6;
+    }
+
+    /**
+     * @return The bits of {@code word} that fall within {@code [from, to)}.
+     */
+    private static long mask(int word, int from, int to) {
+        long mask = -1L;
+        if (word == firstWord(from)) {
+            mask &= -1L << (from & 63);
+        }
+        if (word == lastWord(to)) {
+            mask &= -1L >>> (63 - ((to - 1) & 63));
+        }
+        return mask;
+    }
+}
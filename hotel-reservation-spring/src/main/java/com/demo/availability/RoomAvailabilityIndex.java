@@ -0,0 +1,214 @@
+package com.demo.availability;
+
+import com.demo.TimeProvider;
+import com.demo.domain.Dates;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In memory index of booked nights per {@code Room} so availability searches never reach the database.
+ *
+ * <p>Each room owns a {@link NightBitmap} covering {@link #HORIZON_NIGHTS} nights starting from today. Checking a
+ * stay is a bitwise AND of the stay mask against at most a handful of words.</p>
+ *
+ * <p>The index must be told about every booking write, see {@code AvailabilityIndexLoader} for the initial load.</p>
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    /**
+     * Number of nights from today bookings are tracked for. Roughly two years.
+     */
+    public static final int HORIZON_NIGHTS = 731;
+
+    private final TimeProvider timeProvider;
+
+    private final ConcurrentMap<Long, NightBitmap> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> hotelByRoom = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Long>> roomsByHotel = new ConcurrentHashMap<>();
+
+    public RoomAvailabilityIndex(TimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * @return {@code true} if the stay falls entirely within the tracked horizon.
+     */
+    public boolean covers(LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null || checkOutDate == null) {
+            return false;
+        }
+        long today = today();
+        long from = checkInDate.toEpochDay();
+        long to = checkOutDate.toEpochDay();
+        return from >= today && from < to && to <= today + HORIZON_NIGHTS;
+    }
+
+    /**
+     * Validates the dates of a stay being searched for, including that it is within the horizon.
+     */
+    public Optional<Dates.ValidationError> validateStay(LocalDate checkInDate, LocalDate checkOutDate) {
+        Dates dates = new Dates();
+        dates.setCheckInDate(checkInDate);
+        dates.setCheckOutDate(checkOutDate);
+        Optional<Dates.ValidationError> error = dates.validate(timeProvider.localDate());
+        if (error.isPresent()) {
+            return error;
+        }
+        if (!covers(checkInDate, checkOutDate)) {
+            return Optional.of(new Dates.ValidationError("checkOutDate.horizon",
+                    "Rooms can only be searched up to " + HORIZON_NIGHTS + " nights ahead"));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds the room to the set of rooms searched for its {@code Hotel}.
+     */
+    public void registerRoom(Long hotelId, Long roomId) {
+        bitmap(roomId);
+        if (hotelId != null) {
+            hotelByRoom.put(roomId, hotelId);
+            roomsByHotel.computeIfAbsent(hotelId, id -> ConcurrentHashMap.newKeySet()).add(roomId);
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+        Long hotelId = hotelByRoom.remove(roomId);
+        if (hotelId != null) {
+            roomsByHotel.getOrDefault(hotelId, Collections.emptySet()).remove(roomId);
+        }
+    }
+
+    /**
+     * @return The ids of every room registered for the hotel, booked or not.
+     */
+    public Set<Long> hotelRooms(Long hotelId) {
+        return Collections.unmodifiableSet(roomsByHotel.getOrDefault(hotelId, Collections.emptySet()));
+    }
+
+    /**
+     * @return {@code true} if the room has been registered with or booked through this index.
+     */
+    public boolean isTracked(Long roomId) {
+        return rooms.containsKey(roomId);
+    }
+
+    /**
+     * Atomically books the nights {@code [checkInDate, checkOutDate)} if every one of them is free.
+     *
+     * <p>Only callers claiming the same room contend with each other. A successful claim must be
+     * {@link #release released} if the booking is not persisted.</p>
+     *
+     * @return {@code false} if the room is unknown or any night is already booked.
+     */
+    public boolean claim(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        NightBitmap nights = rooms.get(roomId);
+        return nights != null && nights.claim(today(), checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    /**
+     * Records the nights {@code [checkInDate, checkOutDate)} as booked. Nights outside the horizon are ignored.
+     */
+    public void markBooked(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null || checkOutDate == null) {
+            return;
+        }
+        bitmap(roomId).set(today(), checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    /**
+     * Frees the nights {@code [checkInDate, checkOutDate)}, eg when a booking is cancelled.
+     */
+    public void release(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        NightBitmap nights = rooms.get(roomId);
+        if (nights == null || checkInDate == null || checkOutDate == null) {
+            return;
+        }
+        nights.clear(today(), checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    /**
+     * @return {@code true} if none of the nights {@code [checkInDate, checkOutDate)} are booked.
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        NightBitmap nights = rooms.get(roomId);
+        return nights == null || nights.isFree(today(), checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    /**
+     * @return {@code true} if at least one room in the hotel is free for every night of the stay.
+     */
+    public boolean hasAvailableRoom(Long hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        Set<Long> roomIds = roomsByHotel.get(hotelId);
+        if (roomIds == null) {
+            return false;
+        }
+        long today = today();
+        long from = checkInDate.toEpochDay();
+        long to = checkOutDate.toEpochDay();
+        for (Long roomId : roomIds) {
+            NightBitmap nights = rooms.get(roomId);
+            if (nights != null && nights.isFree(today, from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The ids of the rooms in the hotel that are free for every night of the stay.
+     */
+    public List<Long> availableRooms(Long hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        Set<Long> roomIds = roomsByHotel.get(hotelId);
+        if (roomIds == null) {
+            return Collections.emptyList();
+        }
+        long today = today();
+        long from = checkInDate.toEpochDay();
+        long to = checkOutDate.toEpochDay();
+
+        List<Long> available = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            NightBitmap nights = rooms.get(roomId);
+            if (nights != null && nights.isFree(today, from, to)) {
+                available.add(roomId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * The free nights left either side of a stay, which tell how well the stay fits between the room's bookings.
+     * Nights before today and beyond the horizon count as booked.
+     *
+     * @param limit The most nights counted on each side, so the cost stays constant for rooms that are mostly free.
+     * @return The free nights directly before {@code checkInDate} and from {@code checkOutDate} on, in that order.
+     */
+    public int[] freeNightsAround(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, int limit) {
+        NightBitmap nights = rooms.get(roomId);
+        if (nights == null) {
+            return new int[]{limit, limit};
+        }
+        long today = today();
+        return new int[]{nights.freeBefore(today, checkInDate.toEpochDay(), limit),
+                nights.freeFrom(today, checkOutDate.toEpochDay(), limit)};
+    }
+
+    private NightBitmap bitmap(Long roomId) {
+        return rooms.computeIfAbsent(roomId, id -> new NightBitmap(today(), HORIZON_NIGHTS));
+    }
+
+    private long today() {
+        return timeProvider.localDate().toEpochDay();
+    }
+}
@@ -0,0 +1,333 @@
+package com.demo.booking;
+
+import com.demo.TimeProvider;
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Room;
+import com.demo.dto.BookingResultDTO;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.InvalidBookingException;
+import com.demo.exceptions.NotFoundException;
+import com.demo.persistance.BookingRepository;
+import com.demo.persistance.RoomNightRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Creates bookings without ever double booking a {@code Room}.
+ *
+ * <p>The nights of the stay are first claimed in the {@link RoomAvailabilityIndex}, which is an atomic check and set
+ * guarded by a lock per room. Concurrent requests for the same room serialize on that lock and exactly one of any
+ * overlapping requests wins, while bookings for other rooms proceed in parallel. The lock is only held for the
+ * bitmap update, never while waiting on the database.</p>
+ *
+ * <p>The claim is released again if the booking cannot be persisted. The {@code RoomNight} ledger primary key is
+ * the final guard, so a night can never be stored twice even if the index is out of date. Nights it rejects are
+ * kept occupied in the index rather than released.</p>
+ *
+ * <p>A booking with the reservation id of one already made is not booked again, the original is returned instead.
+ * Recent bookings are found in {@link RecentBookings}, older ones through the unique reservation id index when the
+ * retry fails on it or on its own nights.</p>
+ */
+@Service
+public class BookingEngine {
+
+    public static final int MAX_BULK_BOOKINGS = 1000;
+
+    private final CatalogService catalogService;
+    private final BookingRepository bookingRepository;
+    private final RoomNightRepository roomNightRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeProvider timeProvider;
+    private final RecentBookings recentBookings;
+
+    public BookingEngine(CatalogService catalogService, BookingRepository bookingRepository,
+                         RoomNightRepository roomNightRepository, RoomAvailabilityIndex availabilityIndex, TransactionTemplate transactionTemplate,
+                         TimeProvider timeProvider, RecentBookings recentBookings) {
+        this.catalogService = catalogService;
+        this.bookingRepository = bookingRepository;
+        this.roomNightRepository = roomNightRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.timeProvider = timeProvider;
+        this.recentBookings = recentBookings;
+    }
+
+    /**
+     * Books the {@code Room} referenced by the booking for the nights in its {@code Dates}.
+     *
+     * @return The persisted {@code Booking}, or the one made earlier with the same reservation id.
+     * @throws NotFoundException        If the room does not exist.
+     * @throws InvalidBookingException  If the dates are invalid or beyond the bookable horizon, or the reservation id
+     *                                  was used for another stay.
+     * @throws BookingConflictException If any of the nights are already booked.
+     */
+    public Booking book(Booking booking) throws NotFoundException, InvalidBookingException, BookingConflictException {
+        Optional<Booking> replayed = replay(booking);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+        try {
+            claim(booking);
+        } catch (BookingConflictException e) {
+            // A retry no longer remembered finds its own nights taken.
+            return findBooked(booking).orElseThrow(() -> e);
+        }
+        try {
+            persist(Collections.singletonList(booking));
+        } catch (DataIntegrityViolationException e) {
+            // The ledger primary key rejected a night booked elsewhere that this index did not know about, or the
+            // reservation id was already used.
+            releaseRejected(booking);
+            return findBooked(booking).orElseThrow(() -> conflict(booking));
+        } catch (RuntimeException e) {
+            release(booking);
+            throw e;
+        }
+        recentBookings.put(booking);
+        return booking;
+    }
+
+    /**
+     * The booking recently made with the same reservation id, if any. Only looks in memory.
+     *
+     * @throws InvalidBookingException If the reservation id was used for another room or stay.
+     */
+    public Optional<Booking> replay(Booking booking) throws InvalidBookingException {
+        return sameStay(recentBookings.find(booking.getReservationId()), booking);
+    }
+
+    /**
+     * Remembers a booking persisted outside this engine so a retry of it is replayed.
+     */
+    public void remember(Booking booking) {
+        recentBookings.put(booking);
+    }
+
+    /**
+     * The booking already made with the same reservation id, looked up in the database for a retry that is no longer
+     * remembered, eg once its nights or reservation id were found taken. Remembered again when found.
+     *
+     * @throws InvalidBookingException If the reservation id was used for another room or stay.
+     */
+    public Optional<Booking> findBooked(Booking booking) throws InvalidBookingException {
+        Optional<Booking> existing = sameStay(bookingRepository.findDetailByReservationId(booking.getReservationId()),
+                booking);
+        existing.ifPresent(recentBookings::put);
+        return existing;
+    }
+
+    private Optional<Booking> sameStay(Optional<Booking> existing, Booking booking) throws InvalidBookingException {
+        if (existing.isPresent() && !isSameStay(existing.get(), booking)) {
+            throw new InvalidBookingException(new Dates.ValidationError("reservationId.used",
+                    "Reservation " + booking.getReservationId() + " was already made for another stay"));
+        }
+        return existing;
+    }
+
+    /**
+     * A booking without a room leaves the room to the caller, eg {@link RoomAllocator}, so it matches any room.
+     */
+    private static boolean isSameStay(Booking existing, Booking booking) {
+        return (roomId(booking) == null || Objects.equals(roomId(existing), roomId(booking)))
+                && Objects.equals(existing.getDates().getCheckInDate(), checkIn(booking))
+                && Objects.equals(existing.getDates().getCheckOutDate(), checkOut(booking));
+    }
+
+    private static Long roomId(Booking booking) {
+        return booking.getRoom() == null ? null : booking.getRoom().getId();
+    }
+
+    private static LocalDate checkIn(Booking booking) {
+        return booking.getDates() == null ? null : booking.getDates().getCheckInDate();
+    }
+
+    private static LocalDate checkOut(Booking booking) {
+        return booking.getDates() == null ? null : booking.getDates().getCheckOutDate();
+    }
+
+    /**
+     * Books many rooms at once, eg an allotment pushed by a channel manager.
+     *
+     * <p>Each booking is validated and claimed in the index in a single pass, so bookings in the same request that
+     * overlap each other conflict just like separate requests would. All the successful claims are then inserted
+     * in one transaction using JDBC batches. Should that transaction fail, the claimed bookings are retried one at a
+     * time so only the bookings actually at fault are rejected.</p>
+     *
+     * @return One result per booking, in request order.
+     */
+    public List<BookingResultDTO> bookAll(List<Booking> bookings) {
+        BookingResultDTO[] results = claimAll(bookings);
+        List<Booking> claimed = new ArrayList<>(bookings.size());
+        List<Integer> claimedIndexes = new ArrayList<>(bookings.size());
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                claimed.add(bookings.get(i));
+                claimedIndexes.add(i);
+            }
+        }
+
+        try {
+            if (!claimed.isEmpty()) {
+                persist(claimed);
+            }
+            for (int i = 0; i < claimed.size(); i++) {
+                results[claimedIndexes.get(i)] = BookingResultDTO.booked(claimedIndexes.get(i), claimed.get(i));
+                recentBookings.put(claimed.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            for (int i = 0; i < claimed.size(); i++) {
+                results[claimedIndexes.get(i)] = persistAlone(claimedIndexes.get(i), claimed.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Validates and claims each booking in turn, the first pass of {@link #bookAll}, for callers that persist the
+     * claimed bookings themselves.
+     *
+     * @return One result per booking in request order, {@code null} where the booking was claimed.
+     */
+    public BookingResultDTO[] claimAll(List<Booking> bookings) {
+        BookingResultDTO[] results = new BookingResultDTO[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            try {
+                Optional<Booking> replayed = replay(bookings.get(i));
+                if (replayed.isPresent()) {
+                    results[i] = BookingResultDTO.booked(i, replayed.get());
+                    continue;
+                }
+                claim(bookings.get(i));
+            } catch (NotFoundException e) {
+                results[i] = BookingResultDTO.failed(i, BookingResultDTO.Status.NOT_FOUND, "room.notFound",
+                        "Room " + e.getMessage() + " does not exist");
+            } catch (InvalidBookingException e) {
+                results[i] = BookingResultDTO.failed(i, BookingResultDTO.Status.INVALID, e.getError().getCode(),
+                        e.getError().getReason());
+            } catch (BookingConflictException e) {
+                results[i] = booked(i, bookings.get(i)).orElse(BookingResultDTO.failed(i,
+                        BookingResultDTO.Status.CONFLICT, "room.booked", e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The result of a booking that failed on a night or reservation id already taken, should it have been made
+     * earlier with the same reservation id.
+     */
+    private Optional<BookingResultDTO> booked(int index, Booking booking) {
+        try {
+            return findBooked(booking).map(existing -> BookingResultDTO.booked(index, existing));
+        } catch (InvalidBookingException e) {
+            return Optional.of(BookingResultDTO.failed(index, BookingResultDTO.Status.INVALID,
+                    e.getError().getCode(), e.getError().getReason()));
+        }
+    }
+
+    private BookingResultDTO persistAlone(int index, Booking booking) {
+        // Ids handed out to the rolled back batch are not reused.
+        booking.setId(null);
+        try {
+            persist(Collections.singletonList(booking));
+            recentBookings.put(booking);
+            return BookingResultDTO.booked(index, booking);
+        } catch (DataIntegrityViolationException e) {
+            releaseRejected(booking);
+            return booked(index, booking).orElse(BookingResultDTO.failed(index, BookingResultDTO.Status.CONFLICT,
+                    "room.booked", conflict(booking).getMessage()));
+        } catch (RuntimeException e) {
+            release(booking);
+            return BookingResultDTO.failed(index, BookingResultDTO.Status.ERROR, "booking.failed", e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the booking and claims its nights, on success the booking references the catalog {@code Room}.
+     * The claim must be {@link #release released} if the booking is not persisted.
+     */
+    public void claim(Booking booking) throws NotFoundException, InvalidBookingException, BookingConflictException {
+        Long roomId = booking.getRoom() == null ? null : booking.getRoom().getId();
+        if (roomId == null || !availabilityIndex.isTracked(roomId)) {
+            throw new NotFoundException("" + roomId);
+        }
+        // Comes from the catalog cache with its hotel, which the response serializes through the late checkout fee.
+        Room room = catalogService.findRoom(roomId).orElseThrow(() -> new NotFoundException("" + roomId));
+
+        Dates dates = booking.getDates();
+        validate(dates);
+
+        if (!availabilityIndex.claim(roomId, dates.getCheckInDate(), dates.getCheckOutDate())) {
+            throw conflict(booking);
+        }
+        booking.setRoom(room);
+    }
+
+    private void persist(List<Booking> bookings) {
+        transactionTemplate.execute(status -> {
+            // Inserts are only sent at commit, where Hibernate groups them into JDBC batches.
+            for (Booking booking : bookings) {
+                booking.setCreatedTime(timeProvider.localDateTime());
+                booking.occupyNights();
+                bookingRepository.save(booking);
+            }
+            return null;
+        });
+    }
+
+    public void release(Booking booking) {
+        availabilityIndex.release(booking.getRoom().getId(), booking.getDates().getCheckInDate(),
+                booking.getDates().getCheckOutDate());
+    }
+
+    /**
+     * Releases the claim of a booking the database rejected, except for the nights the {@code RoomNight} ledger
+     * already holds. Those were booked without the index knowing, eg by another instance, so they stay occupied.
+     */
+    public void releaseRejected(Booking booking) {
+        Long roomId = booking.getRoom().getId();
+        LocalDate checkIn = booking.getDates().getCheckInDate();
+        LocalDate checkOut = booking.getDates().getCheckOutDate();
+        Set<LocalDate> booked = new HashSet<>(roomNightRepository.findBookedNights(roomId, checkIn, checkOut));
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            if (!booked.contains(night)) {
+                availabilityIndex.release(roomId, night, night.plusDays(1));
+            }
+        }
+    }
+
+    public BookingConflictException conflict(Booking booking) {
+        return new BookingConflictException("Room " + booking.getRoom().getId() + " is already booked between "
+                + booking.getDates().getCheckInDate() + " and " + booking.getDates().getCheckOutDate());
+    }
+
+    private void validate(Dates dates) throws InvalidBookingException {
+        if (dates == null) {
+            throw new InvalidBookingException(
+                    new Dates.ValidationError("checkInDate.missing", "Missing check in date"));
+        }
+        Optional<Dates.ValidationError> error = dates.validate(timeProvider.localDate());
+        if (error.isPresent()) {
+            throw new InvalidBookingException(error.get());
+        }
+        if (!availabilityIndex.covers(dates.getCheckInDate(), dates.getCheckOutDate())) {
+            throw new InvalidBookingException(new Dates.ValidationError("checkOutDate.horizon",
+                    "Rooms can only be booked up to " + RoomAvailabilityIndex.HORIZON_NIGHTS + " nights ahead"));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.demo.booking;
+
+import com.demo.domain.Booking;
+import com.demo.dto.BookingResultDTO;
+import com.demo.dto.BookingTicketDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional asynchronous booking intake for bursts, turned on with {@code app.booking.intake.enabled=true}.
+ *
+ * <p>Bookings are accepted into a bounded queue and the caller gets a ticket back straight away. Workers drain the
+ * queue in batches of up to {@code batch-size} and book each batch with {@link BookingEngine#bookAll}, so a burst
+ * costs one transaction per batch rather than one per booking. When the queue is full {@link #submit} refuses the
+ * booking, which the caller should pass on as back pressure.</p>
+ *
+ * <p>Tickets are kept for {@code ticket-ttl} after they were last updated, and at most {@code poll-window} finished
+ * tickets are kept on top of those queued or being booked. Bookings still queued at shut down are booked before the
+ * workers stop.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "app.booking.intake.enabled", havingValue = "true")
+public class BookingIntake {
+
+    private static final Logger log = LoggerFactory.getLogger("BookingIntake");
+
+    private static final long POLL_MILLIS = 200;
+
+    private final BookingEngine bookingEngine;
+    private final BlockingQueue<Entry> queue;
+    private final int workers;
+    private final int batchSize;
+    private final Cache<UUID, BookingTicketDTO> tickets;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public BookingIntake(BookingEngine bookingEngine,
+                         @Value("${app.booking.intake.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.booking.intake.workers:2}") int workers,
+                         @Value("${app.booking.intake.batch-size:200}") int batchSize,
+                         @Value("${app.booking.intake.ticket-ttl:PT15M}") Duration ticketTtl,
+                         @Value("${app.booking.intake.poll-window:10000}") int pollWindow) {
+        this.bookingEngine = bookingEngine;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, Math.min(batchSize, BookingEngine.MAX_BULK_BOOKINGS));
+        this.tickets = Caffeine.newBuilder()
+                // room for every queued and in flight ticket, plus the finished ones in the poll window.
+                .maximumSize((long) Math.max(1, queueCapacity) + (long) this.workers * this.batchSize
+                        + Math.max(0, pollWindow))
+                .expireAfterWrite(ticketTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Booking intake stopped with {} bookings still queued", queue.size());
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * @return The ticket to poll with {@link #ticket(UUID)}, empty if the queue is full.
+     */
+    public Optional<BookingTicketDTO> submit(Booking booking) {
+        BookingTicketDTO ticket = BookingTicketDTO.queued(UUID.randomUUID());
+        // recorded first so a worker finishing the booking straight away never has its result overwritten.
+        tickets.put(ticket.getTicket(), ticket);
+        if (!running || !queue.offer(new Entry(ticket.getTicket(), booking))) {
+            tickets.invalidate(ticket.getTicket());
+            return Optional.empty();
+        }
+        return Optional.of(ticket);
+    }
+
+    public Optional<BookingTicketDTO> ticket(UUID ticket) {
+        return Optional.ofNullable(tickets.getIfPresent(ticket));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                book(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Booking intake batch of {} failed", batch.size(), e);
+                for (int i = 0; i < batch.size(); i++) {
+                    UUID ticket = batch.get(i).ticket;
+                    tickets.put(ticket, BookingTicketDTO.done(ticket, BookingResultDTO.failed(i,
+                            BookingResultDTO.Status.ERROR, "booking.failed", e.getMessage())));
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void book(List<Entry> batch) {
+        List<Booking> bookings = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            bookings.add(entry.booking);
+        }
+        List<BookingResultDTO> results = bookingEngine.bookAll(bookings);
+        for (int i = 0; i < batch.size(); i++) {
+            UUID ticket = batch.get(i).ticket;
+            tickets.put(ticket, BookingTicketDTO.done(ticket, results.get(i)));
+        }
+    }
+
+    private static final class Entry {
+        final UUID ticket;
+        final Booking booking;
+
+        Entry(UUID ticket, Booking booking) {
+            this.ticket = ticket;
+            this.booking = booking;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.booking;
+
+import com.demo.domain.Booking;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Recently made bookings by reservation id, so a client retrying a booking gets the original back from memory
+ * instead of a duplicate, see {@code app.booking.idempotency.*}.
+ *
+ * <p>Entries are evicted by size and age. Once an entry is gone the unique reservation id index still rejects a
+ * duplicate and {@link BookingEngine} looks the original up in the database.</p>
+ */
+@Component
+public class RecentBookings {
+
+    private final Cache<UUID, Booking> bookings;
+
+    public RecentBookings(@Value("${app.booking.idempotency.maximum-size:100000}") long maximumSize,
+                          @Value("${app.booking.idempotency.ttl:PT1H}") Duration ttl) {
+        this.bookings = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<Booking> find(UUID reservationId) {
+        return reservationId == null ? Optional.empty() : Optional.ofNullable(bookings.getIfPresent(reservationId));
+    }
+
+    public void put(Booking booking) {
+        bookings.put(booking.getReservationId(), booking);
+    }
+}
@@ -0,0 +1,137 @@
+package com.demo.booking;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.InvalidBookingException;
+import com.demo.exceptions.NotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Picks and books the best free {@code Room} of a hotel for a stay, so guests need not choose a room themselves.
+ *
+ * <p>Only the rooms the {@link RoomAvailabilityIndex} reports free for the whole stay are considered, read through
+ * the catalog cache. The cost is in the number of candidates, never the size of the inventory.</p>
+ *
+ * <p>Rooms that leave the fewest short gaps next to their other bookings come first, since a night or two between
+ * stays is hard to sell. Then the cheapest, then the fewest beds that still fit the guests.</p>
+ */
+@Service
+public class RoomAllocator {
+
+    /**
+     * Free runs of up to this many nights left beside the stay count as fragments.
+     */
+    static final int SHORT_GAP_NIGHTS = 3;
+
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CatalogService catalogService;
+    private final BookingEngine bookingEngine;
+
+    public RoomAllocator(RoomAvailabilityIndex availabilityIndex, CatalogService catalogService,
+                         BookingEngine bookingEngine) {
+        this.availabilityIndex = availabilityIndex;
+        this.catalogService = catalogService;
+        this.bookingEngine = bookingEngine;
+    }
+
+    /**
+     * Books the best room for the booking's dates. Should another booking take that room first the next best is
+     * tried.
+     *
+     * @param roomType The type of room wanted, any type if {@code null}.
+     * @param guests   The number of beds needed.
+     * @return The persisted {@code Booking}.
+     * @throws NotFoundException        If the hotel has no rooms.
+     * @throws InvalidBookingException  If the dates are invalid or beyond the bookable horizon.
+     * @throws BookingConflictException If no suitable room is free.
+     */
+    public Booking assign(Long hotelId, RoomType roomType, int guests, Booking booking)
+            throws NotFoundException, InvalidBookingException, BookingConflictException {
+        Dates dates = booking.getDates();
+        if (dates == null) {
+            throw new InvalidBookingException(
+                    new Dates.ValidationError("checkInDate.missing", "Missing check in date"));
+        }
+        Optional<Booking> replayed = bookingEngine.replay(booking);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+        if (availabilityIndex.hotelRooms(hotelId).isEmpty()) {
+            throw new NotFoundException("" + hotelId);
+        }
+        Optional<Dates.ValidationError> error = availabilityIndex.validateStay(dates.getCheckInDate(),
+                dates.getCheckOutDate());
+        if (error.isPresent()) {
+            throw new InvalidBookingException(error.get());
+        }
+
+        for (Room room : candidates(hotelId, roomType, guests, dates.getCheckInDate(), dates.getCheckOutDate())) {
+            booking.setRoom(room);
+            try {
+                return bookingEngine.book(booking);
+            } catch (BookingConflictException e) {
+                // Taken since the candidates were ranked, on to the next best.
+            }
+        }
+        throw new BookingConflictException("No " + (roomType == null ? "" : roomType + " ") + "room for " + guests
+                + " guests is free in hotel " + hotelId + " between " + dates.getCheckInDate() + " and "
+                + dates.getCheckOutDate());
+    }
+
+    /**
+     * @return The rooms of the hotel free for the stay that fit the guests, best first.
+     */
+    public List<Room> candidates(Long hotelId, RoomType roomType, int guests, LocalDate checkInDate,
+                                 LocalDate checkOutDate) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Room room : catalogService.findRooms(availabilityIndex.availableRooms(hotelId, checkInDate,
+                checkOutDate))) {
+            if ((roomType == null || room.getRoomType() == roomType) && room.getBeds() >= guests) {
+                int[] free = availabilityIndex.freeNightsAround(room.getId(), checkInDate, checkOutDate,
+                        SHORT_GAP_NIGHTS + 1);
+                candidates.add(new Candidate(room, fragments(free[0]) + fragments(free[1]), free[0] + free[1]));
+            }
+        }
+        candidates.sort(Candidate.BEST_FIRST);
+
+        List<Room> rooms = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            rooms.add(candidate.room);
+        }
+        return rooms;
+    }
+
+    private static int fragments(int freeNights) {
+        return freeNights > 0 && freeNights <= SHORT_GAP_NIGHTS ? 1 : 0;
+    }
+
+    private static final class Candidate {
+
+        static final Comparator<Candidate> BEST_FIRST = Comparator.<Candidate>comparingInt(c -> c.fragments)
+                .thenComparing(c -> c.room.getCostPerNight())
+                .thenComparingInt(c -> c.room.getBeds())
+                .thenComparingInt(c -> c.freeNights)
+                .thenComparing(c -> c.room.getId());
+
+        final Room room;
+        final int fragments;
+        final int freeNights;
+
+        Candidate(Room room, int fragments, int freeNights) {
+            this.room = room;
+            this.fragments = fragments;
+            this.freeNights = freeNights;
+        }
+    }
+}
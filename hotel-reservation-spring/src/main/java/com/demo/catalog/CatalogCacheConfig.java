@@ -0,0 +1,13 @@
+package com.demo.catalog;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on the Spring cache abstraction. The cache manager itself is Caffeine, sized and configured through the
+ * {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CatalogCacheConfig {
+}
@@ -0,0 +1,243 @@
+package com.demo.catalog;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.dto.CacheStatsDTO;
+import com.demo.exceptions.RoomInUseException;
+import com.demo.persistance.BookingRepository;
+import com.demo.persistance.HotelRepository;
+import com.demo.persistance.RoomRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read through cache of the {@code Hotel} and {@code Room} catalog, which changes rarely but is read on every
+ * search and booking.
+ *
+ * <p>Cached rooms are loaded with their hotel so they can be serialized without a session. Instances are shared
+ * between requests and must be treated as read only, all catalog writes go through this service so the cached
+ * copies are evicted.</p>
+ */
+@Service
+public class CatalogService {
+
+    public static final String HOTELS = "hotels";
+    public static final String ROOMS = "rooms";
+
+    /**
+     * Room prices per hotel and stay, see {@code QuoteService}. Cleared on every room write.
+     */
+    public static final String QUOTES = "quotes";
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogService(HotelRepository hotelRepository, RoomRepository roomRepository,
+                          BookingRepository bookingRepository, RoomAvailabilityIndex availabilityIndex, CacheManager cacheManager,
+                          EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Cacheable(cacheNames = HOTELS, unless = "#result == null")
+    public Optional<Hotel> findHotel(Long id) {
+        return hotelRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = ROOMS, unless = "#result == null")
+    public Optional<Room> findRoom(Long id) {
+        return roomRepository.findWithHotelById(id);
+    }
+
+    /**
+     * Rooms already cached are served from the cache and the rest are loaded in one select.
+     * Ids that do not exist are skipped.
+     */
+    public List<Room> findRooms(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(ROOMS);
+        List<Room> found = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Room room = cache.get(id, Room.class);
+            if (room != null) {
+                found.add(room);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Room room : roomRepository.findByIdIn(missing)) {
+                cache.put(room.getId(), room);
+                found.add(room);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Saves a new hotel and publishes a {@link HotelSavedEvent}.
+     */
+    @Transactional
+    public Hotel createHotel(Hotel hotel) {
+        hotel.setId(null);
+        Hotel saved = hotelRepository.save(hotel);
+        eventPublisher.publishEvent(new HotelSavedEvent(saved));
+        return saved;
+    }
+
+    /**
+     * Copies the details of {@code changes} onto the hotel, its rooms are left alone. Publishes a
+     * {@link HotelSavedEvent}.
+     *
+     * <p>Cached rooms carry their hotel, which bookings are priced from, so they are all dropped. Hotels change
+     * rarely enough that tracking which cached rooms belong to the hotel is not worth it.</p>
+     *
+     * @return The updated hotel, empty if there is no hotel with the id.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = HOTELS, key = "#id"),
+            @CacheEvict(cacheNames = ROOMS, allEntries = true),
+            @CacheEvict(cacheNames = QUOTES, allEntries = true)
+    })
+    public Optional<Hotel> updateHotel(Long id, Hotel changes) {
+        Optional<Hotel> existing = hotelRepository.findById(id);
+        existing.ifPresent(hotel -> {
+            hotel.setName(changes.getName());
+            hotel.setAddress(changes.getAddress());
+            hotel.setStars(changes.getStars());
+            hotel.setEmail(changes.getEmail());
+            hotel.setEarliestCheckInTime(changes.getEarliestCheckInTime());
+            hotel.setLatestCheckInTime(changes.getLatestCheckInTime());
+            hotel.setStandardCheckOutTime(changes.getStandardCheckOutTime());
+            hotel.setLatestCheckOutTime(changes.getLatestCheckOutTime());
+            hotel.setLateCheckoutFee(changes.getLateCheckoutFee());
+            eventPublisher.publishEvent(new HotelSavedEvent(hotel));
+        });
+        return existing;
+    }
+
+    /**
+     * Saves a new or changed room and makes it searchable. Publishes a {@link RoomSavedEvent}.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ROOMS, key = "#result.id"),
+            @CacheEvict(cacheNames = QUOTES, allEntries = true)
+    })
+    public Room saveRoom(Room room) {
+        Room saved = roomRepository.save(room);
+        availabilityIndex.registerRoom(saved.getHotel() == null ? null : saved.getHotel().getId(), saved.getId());
+        eventPublisher.publishEvent(new RoomSavedEvent(saved));
+        return saved;
+    }
+
+    /**
+     * Copies the type, beds and price of {@code changes} onto the room. Its room number and hotel are left alone.
+     * Publishes a {@link RoomSavedEvent}.
+     *
+     * <p>A concurrent update committed first fails this one with an {@code ObjectOptimisticLockingFailureException}
+     * at commit, see {@code OptimisticRetry}.</p>
+     *
+     * @param expectedVersion The version the caller read the room at, if any.
+     * @return The updated room, empty if there is no room with the id.
+     * @throws ObjectOptimisticLockingFailureException If the room is no longer at {@code expectedVersion}.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ROOMS, key = "#id"),
+            @CacheEvict(cacheNames = QUOTES, allEntries = true)
+    })
+    public Optional<Room> updateRoom(Long id, Room changes, Long expectedVersion) {
+        Optional<Room> existing = roomRepository.findWithHotelById(id);
+        existing.ifPresent(room -> {
+            if (expectedVersion != null && expectedVersion != room.getVersion()) {
+                throw new ObjectOptimisticLockingFailureException(Room.class, id);
+            }
+            room.setRoomType(changes.getRoomType());
+            room.setBeds(changes.getBeds());
+            room.setCostPerNight(changes.getCostPerNight());
+            eventPublisher.publishEvent(new RoomSavedEvent(room));
+        });
+        return existing;
+    }
+
+    /**
+     * Deletes a room nobody has booked. Rooms with bookings are kept so the bookings keep their room.
+     *
+     * @throws RoomInUseException If the room has a booking, or one is made while it is being deleted.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ROOMS),
+            @CacheEvict(cacheNames = QUOTES, allEntries = true)
+    })
+    public void deleteRoom(Long id) throws RoomInUseException {
+        if (bookingRepository.existsByRoomId(id)) {
+            throw new RoomInUseException("Room " + id + " has bookings");
+        }
+        try {
+            roomRepository.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            // booked after the check, the foreign key kept the room.
+            throw new RoomInUseException("Room " + id + " has bookings");
+        }
+        availabilityIndex.removeRoom(id);
+        eventPublisher.publishEvent(new RoomDeletedEvent(id));
+    }
+
+    /**
+     * Drops the cached copies of a room changed outside of {@link #saveRoom(Room)}, including the Hibernate second
+     * level cache entry which only tracks writes made through the session.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ROOMS),
+            @CacheEvict(cacheNames = QUOTES, allEntries = true)
+    })
+    public void evictRoom(Long id) {
+        entityManagerFactory.getCache().evict(Room.class, id);
+    }
+
+    /**
+     * @return Hit, miss and eviction counts for each catalog cache.
+     */
+    public List<CacheStatsDTO> cacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache) {
+                CaffeineCache caffeine = (CaffeineCache) cache;
+                CacheStats s = caffeine.getNativeCache().stats();
+                stats.add(new CacheStatsDTO(name, caffeine.getNativeCache().estimatedSize(), s.hitCount(),
+                        s.missCount(), s.hitRate(), s.evictionCount()));
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,19 @@
+package com.demo.catalog;
+
+import com.demo.domain.Hotel;
+
+/**
+ * Published by {@link CatalogService} after a hotel is created or changed.
+ */
+public class HotelSavedEvent {
+
+    private final Hotel hotel;
+
+    public HotelSavedEvent(Hotel hotel) {
+        this.hotel = hotel;
+    }
+
+    public Hotel getHotel() {
+        return hotel;
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.catalog;
+
+/**
+ * Published by {@link CatalogService} after a room is deleted.
+ */
+public class RoomDeletedEvent {
+
+    private final Long roomId;
+
+    public RoomDeletedEvent(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.demo.catalog;
+
+import com.demo.domain.Room;
+
+/**
+ * Published by {@link CatalogService} after a room is created or changed.
+ */
+public class RoomSavedEvent {
+
+    private final Room room;
+
+    public RoomSavedEvent(Room room) {
+        this.room = room;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+}
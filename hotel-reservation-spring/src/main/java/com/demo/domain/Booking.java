@@ -1,25 +1,49 @@
 package com.demo.domain;
 
+import com.demo.domain.pricing.Invoice;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import javax.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_booking_room", columnList = "room_id"),
+        @Index(name = "uk_booking_reservation", columnList = "reservationId", unique = true)
+})
+@NamedEntityGraph(name = Booking.DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode(value = "room", subgraph = "room.hotel"),
+                @NamedAttributeNode("guests")
+        },
+        subgraphs = @NamedSubgraph(name = "room.hotel", attributeNodes = @NamedAttributeNode("hotel")))
 public class Booking {
-    public static final double TAX_AMOUNT = 0.10;
+    public static final String DETAIL = "Booking.detail";
 
+    // A pooled sequence hands out 50 ids per round trip, which lets Hibernate batch the inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
+    // Clients may supply their own so a retried request is recognised rather than booked twice. Sized to the 16 bytes
+    // of a UUID, H2 pads a longer binary column so lookups would never match.
+    @Column(nullable = false, length = 16)
     private UUID reservationId = UUID.randomUUID();
 
-    @OneToOne(mappedBy = "reservation")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", nullable = false)
     private Room room;
 
+    @OneToMany(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    private List<RoomNight> nights = new ArrayList<>();
+
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "reservation_guests",
@@ -38,6 +62,15 @@ public class Booking {
     @Column(nullable = false)
     private LocalDateTime createdTime;
 
+    // A primitive so Spring Data still tells new bookings by their id, which a batch retried one by one resets.
+    @Version
+    private long version;
+
+    // Replaced rather than updated, so threads serializing a shared booking never see a half written price.
+    @Transient
+    @JsonIgnore
+    private volatile Invoice invoice;
+
     /**
      * @return The time this {@code Reservation} was successfully paid for and persisted.
      */
@@ -56,6 +89,10 @@ public class Booking {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Room getRoom() {
         return room;
     }
@@ -109,6 +146,13 @@ public class Booking {
         return reservationId;
     }
 
+    /**
+     * @param reservationId The client's key for this booking, a new random one if {@code null}.
+     */
+    public void setReservationId(UUID reservationId) {
+        this.reservationId = reservationId == null ? UUID.randomUUID() : reservationId;
+    }
+
    
 
     public Dates getDates() {
@@ -119,6 +163,25 @@ public class Booking {
         this.dates = dates;
     }
 
+    /**
+     * The {@code RoomNight} ledger entries this booking occupies, persisted along with the booking.
+     *
+     * @return The unmodifiable list of nights.
+     */
+    public List<RoomNight> getNights() {
+        return Collections.unmodifiableList(nights);
+    }
+
+    /**
+     * Replaces the ledger entries with one per night of the stay. The check out day is not occupied.
+     */
+    public void occupyNights() {
+        nights.clear();
+        for (LocalDate night = dates.getCheckInDate(); night.isBefore(dates.getCheckOutDate()); night = night.plusDays(1)) {
+            nights.add(new RoomNight(room.getId(), night, this));
+        }
+    }
+
     public boolean isRoomFull() {
         return guests.size() >= room.getBeds();
     }
@@ -146,11 +209,23 @@ public class Booking {
         }
     }
 
+    /**
+     * The stay priced in one pass, priced again only once the room, its prices or the dates change.
+     */
+    public Invoice invoice() {
+        Invoice current = invoice;
+        if (current == null || !current.isFor(this)) {
+            current = Invoice.of(this);
+            invoice = current;
+        }
+        return current;
+    }
+
     /**
      * Calculates the chargeable late fee price only if the user has selected the late checkout option.
      */
     public BigDecimal getChargeableLateCheckoutFee() {
-        return dates.isLateCheckout() ? getLateCheckoutFee() : BigDecimal.ZERO;
+        return invoice().getChargeableLateCheckoutFee();
     }
 
     /**
@@ -158,13 +233,7 @@ public class Booking {
      * For the actual chargeable fee, use {@link #getChargeableLateCheckoutFee()}
      */
     public BigDecimal getLateCheckoutFee() {
-        switch (room.getRoomType()) {
-            case Luxury:
-            case Business:
-                return BigDecimal.ZERO;
-            default:
-                return room.getHotel().getLateCheckoutFee();
-        }
+        return invoice().getLateCheckoutFee();
     }
 
     /**
@@ -174,11 +243,7 @@ public class Booking {
      * @return Total nights * per night cost
      */
     public BigDecimal getTotalRoomCost() {
-        long nights = dates.totalNights();
-        if (nights == 0) {
-            return BigDecimal.ZERO;
-        }
-        return room.getCostPerNight().multiply(BigDecimal.valueOf(nights));
+        return invoice().getRoomCost();
     }
 
     /**
@@ -187,26 +252,24 @@ public class Booking {
      * @return {@link #getTotalRoomCost} + {@link #getChargeableLateCheckoutFee}
      */
     public BigDecimal getTotalRoomCostWithLateCheckoutFee() {
-        return getTotalRoomCost().add(getChargeableLateCheckoutFee());
+        return getTotalCostExcludingTax();
     }
 
-   
-
     /**
      * Total cost including everything!
      * Provided separately to allow break down to sub totals on invoices.
      */
     public BigDecimal getTotalCostExcludingTax() {
-        return getTotalRoomCostWithLateCheckoutFee();
+        return invoice().getTotalExcludingTax();
     }
 
     /**
      * Provided separately to allow break down to sub totals on invoices.
      *
-     * @return The taxable amount from the total cost. Eg 10% of $100 = $10.
+     * @return The taxable amount from the total cost, rounded to the cent. Eg 10% of $100 = $10.
      */
     public BigDecimal getTaxableAmount() {
-        return getTotalCostExcludingTax().multiply(BigDecimal.valueOf(TAX_AMOUNT));
+        return invoice().getTax();
     }
 
     /**
@@ -215,7 +278,7 @@ public class Booking {
      * @return The total cost including tax.
      */
     public BigDecimal getTotalCostIncludingTax() {
-        return getTotalCostExcludingTax().add(getTaxableAmount());
+        return invoice().getTotalIncludingTax();
     }
 
 
@@ -1,5 +1,8 @@
 package com.demo.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.Comparator;
@@ -12,6 +15,8 @@ import java.util.Objects;
  * get added to meal plans.</p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Extra {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
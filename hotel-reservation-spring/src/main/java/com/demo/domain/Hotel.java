@@ -3,6 +3,8 @@ package com.demo.domain;
 import com.demo.domain.location.Address;
 import com.demo.util.Utils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -17,9 +19,18 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Entity
+@Table(indexes = {
+        // location search filters on any combination of state, suburb and postcode, see HotelPredicates.byLocation
+        @Index(name = "idx_hotel_state_suburb", columnList = "state, suburbKey, postcode"),
+        @Index(name = "idx_hotel_suburb", columnList = "suburbKey, postcode"),
+        @Index(name = "idx_hotel_postcode", columnList = "postcode")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Hotel implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hotel_seq")
+    @SequenceGenerator(name = "hotel_seq", sequenceName = "hotel_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,6 +46,7 @@ public class Hotel implements Serializable {
     private String email;
 
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     // Stop bidirectional relationship which cause a cycle.
     @JsonIgnore
     private Set<Room> rooms;
@@ -119,6 +131,10 @@ public class Hotel implements Serializable {
         return address;
     }
 
+    public void setAddress(Address address) {
+        this.address = address;
+    }
+
     public int getStars() {
         return stars;
     }
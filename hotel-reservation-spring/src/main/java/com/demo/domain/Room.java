@@ -1,5 +1,7 @@
 package com.demo.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 
 import javax.persistence.*;
@@ -8,12 +10,19 @@ import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Room.WITH_HOTEL, attributeNodes = @NamedAttributeNode("hotel"))
 public class Room {
+    public static final String WITH_HOTEL = "Room.hotel";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Loaded on demand, queries that need the hotel ask for it with the WITH_HOTEL graph or a fetch join.
+    @ManyToOne(fetch = FetchType.LAZY)
     private Hotel hotel;
 
     @NaturalId
@@ -30,8 +39,9 @@ public class Room {
     @Column(nullable = false)
     private BigDecimal costPerNight;
 
-    @OneToOne(cascade = CascadeType.ALL)
-    private Booking reservation;
+    // Concurrent updates fail at commit rather than overwrite each other, see OptimisticRetry.
+    @Version
+    private long version;
 
     public Room(String roomNumber, RoomType roomType, int beds, BigDecimal costPerNight) {
         this.roomNumber = roomNumber;
@@ -47,6 +57,10 @@ public class Room {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -91,21 +105,6 @@ public class Room {
         this.costPerNight = costPerNight;
     }
 
-    public Booking getBooking() {
-        return reservation;
-    }
-
-    public void setBooking(Booking reservation) {
-        if (reservation != null) {
-            this.reservation = reservation;
-            reservation.setRoom(this);
-        }
-    }
-
-    public boolean isReserved() {
-        return reservation != null;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,53 @@
+package com.demo.domain;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * One night a {@code Room} is occupied by a {@code Booking}.
+ *
+ * <p>The ledger holds a row per room per booked night so a room can take any number of bookings over time while
+ * availability and occupancy queries only touch the nights being asked about.</p>
+ */
+@Entity
+@Table(name = "room_night", indexes = @Index(name = "idx_room_night_booking", columnList = "booking_id"))
+public class RoomNight {
+
+    @EmbeddedId
+    private RoomNightId id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "booking_id", nullable = false)
+    private Booking booking;
+
+    public RoomNight(Long roomId, LocalDate night, Booking booking) {
+        this.id = new RoomNightId(roomId, night);
+        this.booking = booking;
+    }
+
+    public RoomNight() {
+    }
+
+    public RoomNightId getId() {
+        return id;
+    }
+
+    public Long getRoomId() {
+        return id.getRoomId();
+    }
+
+    public LocalDate getNight() {
+        return id.getNight();
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomNight{" +
+                "id=" + id +
+                '}';
+    }
+}
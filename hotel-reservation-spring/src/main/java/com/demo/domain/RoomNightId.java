@@ -0,0 +1,60 @@
+package com.demo.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Primary key of the {@code RoomNight} ledger. A room can only be occupied once on any given night.
+ *
+ * <p>The column order makes the key double as the index for lookups by room and date range.</p>
+ */
+@Embeddable
+public class RoomNightId implements Serializable {
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "night", nullable = false)
+    private LocalDate night;
+
+    public RoomNightId(Long roomId, LocalDate night) {
+        this.roomId = roomId;
+        this.night = night;
+    }
+
+    public RoomNightId() {
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RoomNightId that = (RoomNightId) o;
+        return Objects.equals(roomId, that.roomId) &&
+                Objects.equals(night, that.night);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomId, night);
+    }
+
+    @Override
+    public String toString() {
+        return "RoomNightId{" +
+                "roomId=" + roomId +
+                ", night=" + night +
+                '}';
+    }
+}
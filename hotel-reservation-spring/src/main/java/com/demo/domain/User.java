@@ -9,7 +9,9 @@ import java.util.Comparator;
 import java.util.Objects;
 import java.util.UUID;
 
+// user is a reserved word in H2 2.x
 @Entity
+@Table(name = "app_user")
 public class User {
     // Allows UI to delete guest by its temp id rather than send full name details which equals/hashCode use.
     @Transient
@@ -1,11 +1,15 @@
 package com.demo.domain.location;
 
 import com.demo.util.Utils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import javax.persistence.*;
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.util.Locale;
 import java.util.Objects;
 
 @Embeddable
@@ -26,18 +30,35 @@ public class Address {
     @Column(nullable = false)
     private String suburb;
 
+    /**
+     * {@link #suburb} normalized by {@link #suburbKey(String)} so location searches compare plain indexed values.
+     */
+    @Column(nullable = false)
+    @JsonIgnore
+    private String suburbKey;
+
     @Column(nullable = false)
     @Embedded
+    @AttributeOverride(name = "value", column = @Column(name = "postcode", nullable = false))
     @Valid
     private Postcode postcode;
 
+    // WGS84 degrees, optional. Hotels without coordinates are left out of proximity searches.
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
     public Address(String business, String streetLine1, String streetLine2, State state,
                    String suburb, Postcode postcode) {
         this.business = business;
         this.streetLine1 = streetLine1;
         this.streetLine2 = streetLine2;
         this.state = state;
-        this.suburb = suburb;
+        setSuburb(suburb);
         this.postcode = postcode;
     }
 
@@ -82,6 +103,21 @@ public class Address {
 
     public void setSuburb(String suburb) {
         this.suburb = suburb;
+        this.suburbKey = suburbKey(suburb);
+    }
+
+    public String getSuburbKey() {
+        return suburbKey;
+    }
+
+    /**
+     * Upper cased with surrounding and repeated white space removed, eg {@code " north  ryde"} is {@code NORTH RYDE}.
+     */
+    public static String suburbKey(String suburb) {
+        if (suburb == null) {
+            return null;
+        }
+        return suburb.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
     }
 
     public Postcode getPostcode() {
@@ -92,6 +128,29 @@ public class Address {
         this.postcode = postcode;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * @return {@code true} if both coordinates are set.
+     */
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -102,12 +161,14 @@ public class Address {
                 Objects.equals(streetLine2, address.streetLine2) &&
                 state == address.state &&
                 Objects.equals(suburb, address.suburb) &&
-                Objects.equals(postcode, address.postcode);
+                Objects.equals(postcode, address.postcode) &&
+                Objects.equals(latitude, address.latitude) &&
+                Objects.equals(longitude, address.longitude);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(business, streetLine1, streetLine2, state, suburb, postcode);
+        return Objects.hash(business, streetLine1, streetLine2, state, suburb, postcode, latitude, longitude);
     }
 
     @Override
@@ -119,6 +180,8 @@ public class Address {
                 ", state=" + state +
                 ", suburb='" + suburb + '\'' +
                 ", postcode=" + postcode +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
@@ -0,0 +1,107 @@
+package com.demo.domain.pricing;
+
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The invoice lines of a booking, priced once by {@link PricingEngine} and immutable after.
+ *
+ * <p>Unlike a {@link PriceBreakdown} an invoice can be shared between threads, eg a cached booking serialized by
+ * two requests at once. It remembers what it was priced from so the booking can tell when to price again.</p>
+ */
+public final class Invoice {
+    private final Room room;
+    private final RoomType roomType;
+    private final BigDecimal costPerNight;
+    private final BigDecimal hotelLateCheckoutFee;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final boolean lateCheckout;
+
+    private final long totalIncludingTaxCents;
+    private final BigDecimal roomCost;
+    private final BigDecimal lateCheckoutFee;
+    private final BigDecimal chargeableLateCheckoutFee;
+    private final BigDecimal totalExcludingTax;
+    private final BigDecimal tax;
+    private final BigDecimal totalIncludingTax;
+
+    private Invoice(Booking booking, PriceBreakdown price) {
+        room = booking.getRoom();
+        roomType = room.getRoomType();
+        costPerNight = room.getCostPerNight();
+        hotelLateCheckoutFee = lateCheckoutFee(room);
+        checkInDate = booking.getDates().getCheckInDate();
+        checkOutDate = booking.getDates().getCheckOutDate();
+        lateCheckout = booking.getDates().isLateCheckout();
+
+        totalIncludingTaxCents = price.getTotalIncludingTaxCents();
+        roomCost = PricingEngine.toMoney(price.getRoomCostCents());
+        lateCheckoutFee = PricingEngine.toMoney(price.getLateCheckoutFeeCents());
+        chargeableLateCheckoutFee = PricingEngine.toMoney(price.getChargeableLateCheckoutFeeCents());
+        totalExcludingTax = PricingEngine.toMoney(price.getTotalExcludingTaxCents());
+        tax = PricingEngine.toMoney(price.getTaxCents());
+        totalIncludingTax = PricingEngine.toMoney(totalIncludingTaxCents);
+    }
+
+    public static Invoice of(Booking booking) {
+        return new Invoice(booking, PricingEngine.price(booking, new PriceBreakdown()));
+    }
+
+    /**
+     * @return {@code true} if the booking still has the room, prices and dates this invoice was priced from. Prices
+     * are compared by reference, they are immutable so any change replaces them.
+     */
+    public boolean isFor(Booking booking) {
+        Room current = booking.getRoom();
+        Dates dates = booking.getDates();
+        return current == room
+                && current.getRoomType() == roomType
+                && current.getCostPerNight() == costPerNight
+                && lateCheckoutFee(current) == hotelLateCheckoutFee
+                && dates != null
+                && Objects.equals(dates.getCheckInDate(), checkInDate)
+                && Objects.equals(dates.getCheckOutDate(), checkOutDate)
+                && dates.isLateCheckout() == lateCheckout;
+    }
+
+    private static BigDecimal lateCheckoutFee(Room room) {
+        Hotel hotel = room.getHotel();
+        return hotel == null ? null : hotel.getLateCheckoutFee();
+    }
+
+    public long getTotalIncludingTaxCents() {
+        return totalIncludingTaxCents;
+    }
+
+    public BigDecimal getRoomCost() {
+        return roomCost;
+    }
+
+    public BigDecimal getLateCheckoutFee() {
+        return lateCheckoutFee;
+    }
+
+    public BigDecimal getChargeableLateCheckoutFee() {
+        return chargeableLateCheckoutFee;
+    }
+
+    public BigDecimal getTotalExcludingTax() {
+        return totalExcludingTax;
+    }
+
+    public BigDecimal getTax() {
+        return tax;
+    }
+
+    public BigDecimal getTotalIncludingTax() {
+        return totalIncludingTax;
+    }
+}
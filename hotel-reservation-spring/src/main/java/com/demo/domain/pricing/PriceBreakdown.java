@@ -0,0 +1,77 @@
+package com.demo.domain.pricing;
+
+/**
+ * The invoice lines of one stay in whole cents, filled in by {@link PricingEngine}.
+ *
+ * <p>Instances are mutable so a caller pricing many stays can reuse one breakdown instead of allocating per quote.
+ * A breakdown is not thread safe.</p>
+ */
+public final class PriceBreakdown {
+    private long nights;
+    private long roomCost;
+    private long lateCheckoutFee;
+    private long chargeableLateCheckoutFee;
+    private long totalExcludingTax;
+    private long tax;
+    private long totalIncludingTax;
+
+    void set(long nights, long roomCost, long lateCheckoutFee, long chargeableLateCheckoutFee,
+             long totalExcludingTax, long tax) {
+        this.nights = nights;
+        this.roomCost = roomCost;
+        this.lateCheckoutFee = lateCheckoutFee;
+        this.chargeableLateCheckoutFee = chargeableLateCheckoutFee;
+        this.totalExcludingTax = totalExcludingTax;
+        this.tax = tax;
+        this.totalIncludingTax = totalExcludingTax + tax;
+    }
+
+    public long getNights() {
+        return nights;
+    }
+
+    /**
+     * Nights * per night cost.
+     */
+    public long getRoomCostCents() {
+        return roomCost;
+    }
+
+    /**
+     * The late checkout fee for the room type, charged or not.
+     */
+    public long getLateCheckoutFeeCents() {
+        return lateCheckoutFee;
+    }
+
+    /**
+     * The late checkout fee when the late checkout option is selected, otherwise 0.
+     */
+    public long getChargeableLateCheckoutFeeCents() {
+        return chargeableLateCheckoutFee;
+    }
+
+    public long getTotalExcludingTaxCents() {
+        return totalExcludingTax;
+    }
+
+    public long getTaxCents() {
+        return tax;
+    }
+
+    public long getTotalIncludingTaxCents() {
+        return totalIncludingTax;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceBreakdown{" +
+                "nights=" + nights +
+                ", roomCost=" + roomCost +
+                ", chargeableLateCheckoutFee=" + chargeableLateCheckoutFee +
+                ", totalExcludingTax=" + totalExcludingTax +
+                ", tax=" + tax +
+                ", totalIncludingTax=" + totalIncludingTax +
+                '}';
+    }
+}
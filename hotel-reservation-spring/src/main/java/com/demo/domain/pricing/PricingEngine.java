@@ -0,0 +1,88 @@
+package com.demo.domain.pricing;
+
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices a stay in a single pass using {@code long} cents.
+ *
+ * <p>Money only becomes a {@link BigDecimal} at the edges, see {@link #toCents} and {@link #toMoney}, so pricing
+ * itself does not allocate. Tax is rounded half up to the cent once, on the total excluding tax.</p>
+ */
+public final class PricingEngine {
+
+    /**
+     * 10% expressed in basis points.
+     */
+    public static final long TAX_RATE_BASIS_POINTS = 1_000;
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private PricingEngine() {
+    }
+
+    /**
+     * Prices the booking's stay into {@code into}.
+     */
+    public static PriceBreakdown price(Booking booking, PriceBreakdown into) {
+        Room room = booking.getRoom();
+        Dates dates = booking.getDates();
+        long hotelLateCheckoutFee = 0;
+        Hotel hotel = room.getHotel();
+        if (hasLateCheckoutFee(room.getRoomType()) && hotel != null) {
+            hotelLateCheckoutFee = toCents(hotel.getLateCheckoutFee());
+        }
+        return price(room.getRoomType(), toCents(room.getCostPerNight()), hotelLateCheckoutFee,
+                dates.totalNights(), dates.isLateCheckout(), into);
+    }
+
+    /**
+     * Prices a stay from values already converted to cents, the allocation free path for quoting many rooms.
+     *
+     * @param hotelLateCheckoutFee the hotel's late checkout fee, waived here for room types that don't pay it
+     */
+    public static PriceBreakdown price(RoomType roomType, long costPerNight, long hotelLateCheckoutFee,
+                                       long nights, boolean lateCheckout, PriceBreakdown into) {
+        long roomCost = Math.multiplyExact(costPerNight, nights);
+        long lateCheckoutFee = hasLateCheckoutFee(roomType) ? hotelLateCheckoutFee : 0;
+        long chargeable = lateCheckout ? lateCheckoutFee : 0;
+        long excludingTax = Math.addExact(roomCost, chargeable);
+        into.set(nights, roomCost, lateCheckoutFee, chargeable, excludingTax, tax(excludingTax));
+        return into;
+    }
+
+    /**
+     * Luxury and Business rooms include late checkout.
+     */
+    public static boolean hasLateCheckoutFee(RoomType roomType) {
+        switch (roomType) {
+            case Luxury:
+            case Business:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    static long tax(long cents) {
+        // half up for the non negative amounts prices are made of.
+        return (Math.multiplyExact(cents, TAX_RATE_BASIS_POINTS) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    /**
+     * Money to cents, rounding half up anything below a cent.
+     */
+    public static long toCents(BigDecimal money) {
+        return money.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toMoney(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
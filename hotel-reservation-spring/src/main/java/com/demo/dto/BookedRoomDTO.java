@@ -0,0 +1,65 @@
+package com.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read only projection of a booked room, selected directly by {@code BookingRepository} so no entities are loaded.
+ */
+public class BookedRoomDTO {
+
+    private final Long bookingId;
+
+    private final Long roomId;
+
+    private final String roomNumber;
+
+    private final Long hotelId;
+
+    private final String hotelName;
+
+    private final LocalDate checkInDate;
+
+    private final LocalDate checkOutDate;
+
+    public BookedRoomDTO(Long bookingId, Long roomId, String roomNumber, Long hotelId, String hotelName,
+                         LocalDate checkInDate, LocalDate checkOutDate) {
+        this.bookingId = bookingId;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.hotelId = hotelId;
+        this.hotelName = hotelName;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    /**
+     * Also the keyset cursor, pass the last one received as {@code after} to fetch the next page.
+     */
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.dto;
+
+import com.demo.domain.Booking;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single booking within a bulk request.
+ */
+public class BookingResultDTO {
+
+    public enum Status {
+        BOOKED, INVALID, NOT_FOUND, CONFLICT, ERROR
+    }
+
+    /**
+     * Position of the booking in the request.
+     */
+    private final int index;
+
+    private final Status status;
+
+    private final Long bookingId;
+
+    private final UUID reservationId;
+
+    private final String code;
+
+    private final String reason;
+
+    private BookingResultDTO(int index, Status status, Long bookingId, UUID reservationId, String code,
+                             String reason) {
+        this.index = index;
+        this.status = status;
+        this.bookingId = bookingId;
+        this.reservationId = reservationId;
+        this.code = code;
+        this.reason = reason;
+    }
+
+    public static BookingResultDTO booked(int index, Booking booking) {
+        return new BookingResultDTO(index, Status.BOOKED, booking.getId(), booking.getReservationId(), null, null);
+    }
+
+    public static BookingResultDTO failed(int index, Status status, String code, String reason) {
+        return new BookingResultDTO(index, status, null, null, code, reason);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
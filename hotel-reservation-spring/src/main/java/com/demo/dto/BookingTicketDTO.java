@@ -0,0 +1,49 @@
+package com.demo.dto;
+
+import java.util.UUID;
+
+/**
+ * A booking accepted by the intake queue, see {@code BookingIntake}. Poll it until it is {@code DONE}.
+ */
+public class BookingTicketDTO {
+
+    public enum State {
+        QUEUED, DONE
+    }
+
+    private final UUID ticket;
+
+    private final State state;
+
+    /**
+     * The outcome of the booking once it is {@code DONE}, its index is the booking's position in the batch it was
+     * booked with.
+     */
+    private final BookingResultDTO result;
+
+    private BookingTicketDTO(UUID ticket, State state, BookingResultDTO result) {
+        this.ticket = ticket;
+        this.state = state;
+        this.result = result;
+    }
+
+    public static BookingTicketDTO queued(UUID ticket) {
+        return new BookingTicketDTO(ticket, State.QUEUED, null);
+    }
+
+    public static BookingTicketDTO done(UUID ticket, BookingResultDTO result) {
+        return new BookingTicketDTO(ticket, State.DONE, result);
+    }
+
+    public UUID getTicket() {
+        return ticket;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public BookingResultDTO getResult() {
+        return result;
+    }
+}
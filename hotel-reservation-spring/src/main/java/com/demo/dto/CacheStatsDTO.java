@@ -0,0 +1,52 @@
+package com.demo.dto;
+
+/**
+ * Snapshot of the counters of a single cache.
+ */
+public class CacheStatsDTO {
+
+    private final String name;
+
+    private final long size;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final double hitRate;
+
+    private final long evictionCount;
+
+    public CacheStatsDTO(String name, long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
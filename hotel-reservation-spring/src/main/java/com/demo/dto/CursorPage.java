@@ -0,0 +1,52 @@
+package com.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results from a keyset query.
+ *
+ * <p>{@code nextCursor} is the id to pass as {@code after} to fetch the following page, or {@code null} when this is
+ * the last page.</p>
+ *
+ * @param <T> The item type.
+ */
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private final List<T> items;
+
+    private final Long nextCursor;
+
+    public CursorPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @param items   The page fetched with {@code size} as its limit.
+     * @param size    The requested page size.
+     * @param idMapper Extracts the keyset id from an item.
+     */
+    public static <T> CursorPage<T> of(List<T> items, int size, Function<T, Long> idMapper) {
+        Long next = items.size() < size || items.isEmpty() ? null : idMapper.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, next);
+    }
+
+    /**
+     * @return {@code size} limited to {@code [1, MAX_SIZE]}.
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(MAX_SIZE, size));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
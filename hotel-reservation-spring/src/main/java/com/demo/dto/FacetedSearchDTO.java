@@ -0,0 +1,39 @@
+package com.demo.dto;
+
+import com.demo.domain.Room;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of matching rooms with the number of matching rooms per facet value.
+ *
+ * <p>The counts for a facet ignore the filter on that facet itself, so they show how many rooms each alternative
+ * value would find.</p>
+ */
+public class FacetedSearchDTO {
+
+    private final List<Room> rooms;
+
+    private final int total;
+
+    private final Map<String, Map<String, Integer>> facets;
+
+    public FacetedSearchDTO(List<Room> rooms, int total, Map<String, Map<String, Integer>> facets) {
+        this.rooms = rooms;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,87 @@
+package com.demo.dto;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.State;
+
+/**
+ * The hotel a {@link RoomDTO} belongs to. Only the id is read from requests, the rest is filled in on responses.
+ */
+public class HotelDTO {
+
+    private Long id;
+
+    private String name;
+
+    private int stars;
+
+    private State state;
+
+    private String suburb;
+
+    private String postcode;
+
+    public HotelDTO() {
+    }
+
+    public static HotelDTO from(Hotel hotel) {
+        HotelDTO dto = new HotelDTO();
+        dto.id = hotel.getId();
+        dto.name = hotel.getName();
+        dto.stars = hotel.getStars();
+        if (hotel.getAddress() != null) {
+            dto.state = hotel.getAddress().getState();
+            dto.suburb = hotel.getAddress().getSuburb();
+            dto.postcode = hotel.getAddress().getPostcode() == null ? null
+                    : hotel.getAddress().getPostcode().getValue();
+        }
+        return dto;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getStars() {
+        return stars;
+    }
+
+    public void setStars(int stars) {
+        this.stars = stars;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getSuburb() {
+        return suburb;
+    }
+
+    public void setSuburb(String suburb) {
+        this.suburb = suburb;
+    }
+
+    public String getPostcode() {
+        return postcode;
+    }
+
+    public void setPostcode(String postcode) {
+        this.postcode = postcode;
+    }
+}
@@ -0,0 +1,56 @@
+package com.demo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The rooms of one hotel free for a stay, each with its price.
+ */
+public class HotelQuoteDTO {
+
+    private final Long hotelId;
+
+    private final LocalDate checkInDate;
+
+    private final LocalDate checkOutDate;
+
+    private final long nights;
+
+    private final boolean lateCheckout;
+
+    private final List<RoomQuoteDTO> rooms;
+
+    public HotelQuoteDTO(Long hotelId, LocalDate checkInDate, LocalDate checkOutDate, long nights,
+                         boolean lateCheckout, List<RoomQuoteDTO> rooms) {
+        this.hotelId = hotelId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.nights = nights;
+        this.lateCheckout = lateCheckout;
+        this.rooms = rooms;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public long getNights() {
+        return nights;
+    }
+
+    public boolean isLateCheckout() {
+        return lateCheckout;
+    }
+
+    public List<RoomQuoteDTO> getRooms() {
+        return rooms;
+    }
+}
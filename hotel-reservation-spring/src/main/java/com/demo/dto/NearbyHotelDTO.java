@@ -0,0 +1,31 @@
+package com.demo.dto;
+
+/**
+ * A hotel found by a proximity search.
+ */
+public class NearbyHotelDTO {
+
+    private final Long hotelId;
+
+    private final String name;
+
+    private final double distanceKm;
+
+    public NearbyHotelDTO(Long hotelId, String name, double distanceKm) {
+        this.hotelId = hotelId;
+        this.name = name;
+        this.distanceKm = distanceKm;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+}
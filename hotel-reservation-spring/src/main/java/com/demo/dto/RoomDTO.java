@@ -2,19 +2,17 @@ package com.demo.dto;
 
 import java.math.BigDecimal;
 
-import org.springframework.beans.BeanUtils;
-
-import com.demo.domain.Booking;
-import com.demo.domain.Hotel;
 import com.demo.domain.Room;
 import com.demo.domain.RoomType;
 
-
+/**
+ * Room as read and written by the admin API. Mapped field by field, the hotel is only referenced by id.
+ */
 public class RoomDTO {
 
 	    private Long id;
 
-	    private Hotel hotel;
+	    private HotelDTO hotel;
 
 	    private String roomNumber;
 
@@ -24,7 +22,8 @@ public class RoomDTO {
 
 	    private BigDecimal costPerNight;
 
-	    private Booking reservation;
+	    // The version the room was read at, see AdminController.updateRoom.
+	    private Long version;
 
 		public Long getId() {
 			return id;
@@ -34,14 +33,21 @@ public class RoomDTO {
 			this.id = id;
 		}
 
-		public Hotel getHotel() {
+		public HotelDTO getHotel() {
 			return hotel;
 		}
 
-		public void setHotel(Hotel hotel) {
+		public void setHotel(HotelDTO hotel) {
 			this.hotel = hotel;
 		}
 
+		/**
+		 * @return The id of the hotel the room is in, {@code null} if none was given.
+		 */
+		public Long hotelId() {
+			return hotel == null ? null : hotel.getId();
+		}
+
 		public String getRoomNumber() {
 			return roomNumber;
 		}
@@ -74,35 +80,39 @@ public class RoomDTO {
 			this.costPerNight = costPerNight;
 		}
 
-		public Booking getReservation() {
-			return reservation;
+		public Long getVersion() {
+			return version;
 		}
 
-		public void setReservation(Booking reservation) {
-			this.reservation = reservation;
+		public void setVersion(Long version) {
+			this.version = version;
 		}
+
 	    
 		
-		public Room getRoom(RoomDTO dto) {
-			
-			if (dto.getBeds() !=0) {
-				Room room = new Room();
-			   BeanUtils.copyProperties(dto, room);
-			 return room;
+		public static RoomDTO from(Room room) {
+			RoomDTO dto = new RoomDTO();
+			dto.id = room.getId();
+			dto.hotel = room.getHotel() == null ? null : HotelDTO.from(room.getHotel());
+			dto.roomNumber = room.getRoomNumber();
+			dto.roomType = room.getRoomType();
+			dto.beds = room.getBeds();
+			dto.costPerNight = room.getCostPerNight();
+			dto.version = room.getVersion();
+			return dto;
+		}
+
+		/**
+		 * @return A new room with the details of this one, without its id or hotel. {@code null} if no beds were
+		 * given.
+		 */
+		public Room toRoom() {
+			if (beds == 0) {
+				return null;
 			}
-			
-			return null;
+			return new Room(roomNumber, roomType, beds, costPerNight);
 		}
 	    
-     public Room copyRoom(RoomDTO dto, Room room) {
-			
-			if (dto.getBeds() !=0) {
-			   BeanUtils.copyProperties(dto, room);
-			 return room;
-			}
-			
-			return null;
-		}
 	    
 
 }
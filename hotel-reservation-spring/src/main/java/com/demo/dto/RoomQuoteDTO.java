@@ -0,0 +1,96 @@
+package com.demo.dto;
+
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.pricing.PriceBreakdown;
+
+import java.math.BigDecimal;
+
+import static com.demo.domain.pricing.PricingEngine.toMoney;
+
+/**
+ * The price of one room for a stay, broken down the same way as a {@code Booking} invoice.
+ * Instances are immutable and shared through the quote cache.
+ */
+public class RoomQuoteDTO {
+
+    private final Long roomId;
+
+    private final String roomNumber;
+
+    private final RoomType roomType;
+
+    private final int beds;
+
+    private final BigDecimal costPerNight;
+
+    private final BigDecimal totalRoomCost;
+
+    private final BigDecimal lateCheckoutFee;
+
+    private final BigDecimal chargeableLateCheckoutFee;
+
+    private final BigDecimal totalCostExcludingTax;
+
+    private final BigDecimal taxableAmount;
+
+    private final BigDecimal totalCostIncludingTax;
+
+    public RoomQuoteDTO(Room room, PriceBreakdown price) {
+        this.roomId = room.getId();
+        this.roomNumber = room.getRoomNumber();
+        this.roomType = room.getRoomType();
+        this.beds = room.getBeds();
+        this.costPerNight = room.getCostPerNight();
+        this.totalRoomCost = toMoney(price.getRoomCostCents());
+        this.lateCheckoutFee = toMoney(price.getLateCheckoutFeeCents());
+        this.chargeableLateCheckoutFee = toMoney(price.getChargeableLateCheckoutFeeCents());
+        this.totalCostExcludingTax = toMoney(price.getTotalExcludingTaxCents());
+        this.taxableAmount = toMoney(price.getTaxCents());
+        this.totalCostIncludingTax = toMoney(price.getTotalIncludingTaxCents());
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getBeds() {
+        return beds;
+    }
+
+    public BigDecimal getCostPerNight() {
+        return costPerNight;
+    }
+
+    public BigDecimal getTotalRoomCost() {
+        return totalRoomCost;
+    }
+
+    public BigDecimal getLateCheckoutFee() {
+        return lateCheckoutFee;
+    }
+
+    public BigDecimal getChargeableLateCheckoutFee() {
+        return chargeableLateCheckoutFee;
+    }
+
+    public BigDecimal getTotalCostExcludingTax() {
+        return totalCostExcludingTax;
+    }
+
+    public BigDecimal getTaxableAmount() {
+        return taxableAmount;
+    }
+
+    public BigDecimal getTotalCostIncludingTax() {
+        return totalCostIncludingTax;
+    }
+}
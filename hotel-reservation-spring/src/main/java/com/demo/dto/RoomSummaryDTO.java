@@ -0,0 +1,57 @@
+package com.demo.dto;
+
+import com.demo.domain.RoomType;
+
+import java.math.BigDecimal;
+
+/**
+ * Slim read only view of a {@code Room} for listings. The hotel is referenced by id rather than serialized.
+ */
+public class RoomSummaryDTO {
+
+    private final Long id;
+
+    private final Long hotelId;
+
+    private final String roomNumber;
+
+    private final RoomType roomType;
+
+    private final int beds;
+
+    private final BigDecimal costPerNight;
+
+    public RoomSummaryDTO(Long id, Long hotelId, String roomNumber, RoomType roomType, int beds,
+                          BigDecimal costPerNight) {
+        this.id = id;
+        this.hotelId = hotelId;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.beds = beds;
+        this.costPerNight = costPerNight;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getBeds() {
+        return beds;
+    }
+
+    public BigDecimal getCostPerNight() {
+        return costPerNight;
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.dto;
+
+import com.demo.domain.location.State;
+
+/**
+ * One autocomplete suggestion, either a place or a hotel.
+ */
+public class TypeaheadDTO {
+
+    public enum Type {SUBURB, POSTCODE, HOTEL}
+
+    private final Type type;
+
+    private final String label;
+
+    private final State state;
+
+    /**
+     * Only set for {@link Type#HOTEL}.
+     */
+    private final Long hotelId;
+
+    /**
+     * Number of hotels the suggestion covers, 1 for a hotel.
+     */
+    private final int hotels;
+
+    public TypeaheadDTO(Type type, String label, State state, Long hotelId, int hotels) {
+        this.type = type;
+        this.label = label;
+        this.state = state;
+        this.hotelId = hotelId;
+        this.hotels = hotels;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public int getHotels() {
+        return hotels;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeaheadDTO{" +
+                "type=" + type +
+                ", label='" + label + '\'' +
+                ", state=" + state +
+                ", hotelId=" + hotelId +
+                ", hotels=" + hotels +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo.dto;
+
+/**
+ * Snapshot of the optimistic lock counters of a single kind of write.
+ */
+public class WriteConflictStatsDTO {
+
+    private final String name;
+
+    private final long writeCount;
+
+    private final long conflictCount;
+
+    private final long retryCount;
+
+    /**
+     * Writes that still conflicted on their last attempt.
+     */
+    private final long failureCount;
+
+    public WriteConflictStatsDTO(String name, long writeCount, long conflictCount, long retryCount,
+                                 long failureCount) {
+        this.name = name;
+        this.writeCount = writeCount;
+        this.conflictCount = conflictCount;
+        this.retryCount = retryCount;
+        this.failureCount = failureCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public long getConflictCount() {
+        return conflictCount;
+    }
+
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.demo.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a {@code Booking} overlaps nights already booked for the same {@code Room}.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class BookingConflictException extends Exception {
+
+    public BookingConflictException() {
+    }
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.demo.exceptions;
+
+/**
+ * Thrown when an import file cannot be read or one of its records is invalid.
+ */
+public class ImportException extends Exception {
+
+    public ImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
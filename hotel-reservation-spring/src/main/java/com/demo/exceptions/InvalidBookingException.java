@@ -0,0 +1,23 @@
+package com.demo.exceptions;
+
+import com.demo.domain.Dates;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the {@code Dates} of a {@code Booking} fail validation.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidBookingException extends Exception {
+
+    private final Dates.ValidationError error;
+
+    public InvalidBookingException(Dates.ValidationError error) {
+        super(error.getReason());
+        this.error = error;
+    }
+
+    public Dates.ValidationError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,18 @@
+package com.demo.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a {@code Room} still referenced by a {@code Booking} is deleted.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class RoomInUseException extends Exception {
+
+    public RoomInUseException() {
+    }
+
+    public RoomInUseException(String message) {
+        super(message);
+    }
+}
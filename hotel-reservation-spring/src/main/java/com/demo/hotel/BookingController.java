@@ -5,80 +5,174 @@ package com.demo.hotel;
 	import java.util.List;
 	import java.util.Map;
 	import java.util.Optional;
+	import java.util.UUID;
 	
+	import org.springframework.context.annotation.Profile;
+	import org.springframework.data.domain.PageRequest;
+	import org.springframework.http.HttpHeaders;
+	import org.springframework.http.HttpStatus;
+	import org.springframework.http.MediaType;
 	import org.springframework.http.ResponseEntity;
 	import org.springframework.web.bind.annotation.GetMapping;
 	import org.springframework.web.bind.annotation.ModelAttribute;
 	import org.springframework.web.bind.annotation.PathVariable;
 	import org.springframework.web.bind.annotation.PostMapping;
 	import org.springframework.web.bind.annotation.RequestBody;
+	import org.springframework.web.bind.annotation.RequestHeader;
 	import org.springframework.web.bind.annotation.RequestMapping;
 	import org.springframework.web.bind.annotation.RequestParam;
 	import org.springframework.web.bind.annotation.RestController;
+	import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+	import com.fasterxml.jackson.core.JsonGenerator;
+	import com.fasterxml.jackson.databind.ObjectMapper;
 	import com.demo.TimeProvider;
+	import com.demo.booking.BookingEngine;
+	import com.demo.booking.BookingIntake;
+	import com.demo.booking.RoomAllocator;
 	import com.demo.domain.Booking;
 import com.demo.domain.Dates;
-import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+	import com.demo.dto.BookedRoomDTO;
+	import com.demo.dto.BookingTicketDTO;
 	import com.demo.dto.RoomDTO;
+	import com.demo.exceptions.BookingConflictException;
+	import com.demo.exceptions.InvalidBookingException;
 	import com.demo.exceptions.NotFoundException;
 	import com.demo.persistance.BookingRepository;
-	import com.demo.persistance.RoomRepository;
 
 
+	  //replaced by the routes in com.demo.reactive under the reactive profile
+	  @Profile("!reactive")
 	  @RequestMapping(value = "/booking")
 	  @RestController
 	  public class BookingController {
 
-		  private RoomRepository roomRepository;
+		  private RoomAllocator roomAllocator;
 		  private BookingRepository bookingRepository;
 		  private TimeProvider timeProvider;
+		  private BookingEngine bookingEngine;
+		  private ObjectMapper objectMapper;
+		  private Optional<BookingIntake> bookingIntake;
 
-		    public BookingController(RoomRepository roomRepository,BookingRepository bookingRepository,
-		                                 TimeProvider timeProvider) {
-		        this.roomRepository = roomRepository;
+		  private static final int BOOKED_ROOMS_CHUNK_SIZE = 500;
+		  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+		    public BookingController(RoomAllocator roomAllocator,BookingRepository bookingRepository,
+		                                 TimeProvider timeProvider, BookingEngine bookingEngine,
+		                                 ObjectMapper objectMapper, Optional<BookingIntake> bookingIntake) {
+		        this.roomAllocator = roomAllocator;
 		        this.bookingRepository = bookingRepository;
 		        this.timeProvider = timeProvider;
+		        this.bookingEngine = bookingEngine;
+		        this.objectMapper = objectMapper;
+		        this.bookingIntake = bookingIntake;
 		    }
 
-		  //below method is used for specified room booking
+		  //below method is used for specified room booking, overlapping bookings for the same room are rejected.
+		  //Retries sending the same Idempotency-Key header (or reservationId) get the original booking back
 		  @PostMapping(value = "/createRoomBooking")
-		  public ResponseEntity createRoomBooking(@RequestBody Booking booking) {				
-			 Optional<Room> existingRoom =  roomRepository.findById(booking.getRoom().getId());
-			   if (existingRoom.isPresent() ) {			    	  
-			     bookingRepository.save(booking);		    	
-			       return ResponseEntity.ok(existingRoom.get()); 
-			     } else {
-			       return ResponseEntity.notFound().build();  
-			    }			      						
+		  public ResponseEntity createRoomBooking(@RequestBody Booking booking,
+				  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey)
+				  throws NotFoundException, BookingConflictException {
+			  if (idempotencyKey != null) {
+				  booking.setReservationId(idempotencyKey);
+			  }
+			  try {
+				  return ResponseEntity.ok(bookingEngine.book(booking));
+			  } catch (InvalidBookingException e) {
+				  return ResponseEntity.badRequest().body(e.getError());
+			  }
 			}
 		
-			//below method is used for random rooms booking on random dates
-			@PostMapping(value = "/createRandomBooking")
-			public ResponseEntity createRandomBooking(@RequestBody Booking booking) {		
-				   List<Room> existingRooms = (List<Room>) roomRepository.findAll();
-			       if (!existingRooms.isEmpty()) {
-			    	   Optional<Room> existingRoom = existingRooms.parallelStream().findFirst();
-			    	   booking.setRoom(existingRoom.get());
-			    	   Dates reservationDatesA = new Dates();
-			    	   booking.setDates(reservationDatesA);		    	   
-			    	   bookingRepository.save(booking);
-			    	
-			    		return ResponseEntity.ok(existingRoom.get()); 
-			      } else {
-			    	  return ResponseEntity.notFound().build();  
-			      }		      	
-				
+			//books up to BookingEngine.MAX_BULK_BOOKINGS rooms in one call, the result of each booking is reported in request order
+			@PostMapping(value = "/bulk")
+			public ResponseEntity createBulkBooking(@RequestBody List<Booking> bookings) {
+				if (bookings.size() > BookingEngine.MAX_BULK_BOOKINGS) {
+					return ResponseEntity.badRequest().body(new Dates.ValidationError("bookings.tooMany",
+							"At most " + BookingEngine.MAX_BULK_BOOKINGS + " bookings can be made at once"));
+				}
+				return ResponseEntity.ok(bookingEngine.bookAll(bookings));
 			}
-	
-			//An API to fetch all booked room
+
+			//queues the booking and returns a ticket to poll at the Location header, 429 when the queue is full.
+			//Only available with app.booking.intake.enabled=true
+			@PostMapping(value = "/intake")
+			public ResponseEntity queueBooking(@RequestBody Booking booking,
+					@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey) {
+				if (!bookingIntake.isPresent()) {
+					return ResponseEntity.notFound().build();
+				}
+				if (idempotencyKey != null) {
+					booking.setReservationId(idempotencyKey);
+				}
+				Optional<BookingTicketDTO> ticket = bookingIntake.get().submit(booking);
+				if (!ticket.isPresent()) {
+					return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+							.body(new Dates.ValidationError("booking.queueFull", "Too many bookings queued, try again shortly"));
+				}
+				return ResponseEntity.accepted().header(HttpHeaders.LOCATION, "/booking/intake/" + ticket.get().getTicket())
+						.body(ticket.get());
+			}
+
+			@GetMapping("/intake/{ticket}")
+			public BookingTicketDTO getTicket(@PathVariable UUID ticket) throws NotFoundException {
+				return bookingIntake.flatMap(intake -> intake.ticket(ticket))
+						.orElseThrow(() -> new NotFoundException("" + ticket));
+			}
+
+			//books the best free room of the hotel for the dates in the body, see RoomAllocator. roomType is optional
+			@PostMapping(value = "/autoAssign")
+			public ResponseEntity autoAssignBooking(@RequestParam Long hotelId,
+					@RequestParam(required = false) RoomType roomType, @RequestParam(defaultValue = "1") int guests,
+					@RequestBody Booking booking,
+					@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey)
+					throws NotFoundException, BookingConflictException {
+				if (idempotencyKey != null) {
+					booking.setReservationId(idempotencyKey);
+				}
+				booking.setRoom(null);
+				try {
+					return ResponseEntity.ok(roomAllocator.assign(hotelId, roomType, Math.max(1, guests), booking));
+				} catch (InvalidBookingException e) {
+					return ResponseEntity.badRequest().body(e.getError());
+				}
+			}
+
+			//single booking with its room, hotel and guests loaded in one select
+			@GetMapping("/{id}")
+			public Booking getBooking(@PathVariable Long id) throws NotFoundException {
+				return bookingRepository.findDetailById(id)
+						.orElseThrow(() -> new NotFoundException("" + id));
+			}
+
+			//An API to fetch all booked room, streamed in booking id order so memory stays constant.
+			//Pass the last bookingId received as 'after' to continue from there.
 			@GetMapping("/rooms")
-			public ResponseEntity getBookedRoom() {			
-				List<Booking> bookings = (List<Booking>) bookingRepository.findAll();				
-				List<Room> rooms= new ArrayList();			
-				bookings.parallelStream().forEach(booking-> rooms.add(booking.getRoom()));
-				
-				 return ResponseEntity.ok().body(rooms);
-				 
+			public ResponseEntity<StreamingResponseBody> getBookedRoom(@RequestParam(defaultValue = "0") long after,
+					@RequestParam(required = false) Integer limit) {
+				int max = limit == null ? Integer.MAX_VALUE : Math.max(0, limit);
+				StreamingResponseBody body = out -> {
+					JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+					json.writeStartArray();
+					long cursor = after;
+					int remaining = max;
+					while (remaining > 0) {
+						int size = Math.min(BOOKED_ROOMS_CHUNK_SIZE, remaining);
+						List<BookedRoomDTO> chunk = bookingRepository.findBookedRoomsAfter(cursor, PageRequest.of(0, size));
+						for (BookedRoomDTO room : chunk) {
+							json.writeObject(room);
+						}
+						json.flush();
+						if (chunk.size() < size) {
+							break;
+						}
+						cursor = chunk.get(chunk.size() - 1).getBookingId();
+						remaining -= chunk.size();
+					}
+					json.writeEndArray();
+					json.flush();
+				};
+				return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
 			}
 			
 //			public int getRandomNumber(int min, int max) {
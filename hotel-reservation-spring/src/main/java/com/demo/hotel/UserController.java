@@ -1,31 +1,243 @@
 package com.demo.hotel;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
 import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.State;
+import com.demo.dto.CursorPage;
+import com.demo.dto.FacetedSearchDTO;
+import com.demo.dto.RoomSummaryDTO;
+import com.demo.dto.TypeaheadDTO;
 import com.demo.persistance.RoomRepository;
+import com.demo.quote.QuoteService;
+import com.demo.search.FacetIndex;
+import com.demo.search.GeoGridIndex;
+import com.demo.search.PriceBand;
+import com.demo.search.SortOrder;
+import com.demo.search.SortedRoomIndex;
+import com.demo.search.TypeaheadIndex;
 
+//replaced by the routes in com.demo.reactive under the reactive profile, which call the index backed methods
+@Profile("!reactive")
 @RequestMapping(value = "/users")
 @RestController
 public class UserController {
 
 	  private RoomRepository roomRepository;
+	  private RoomAvailabilityIndex availabilityIndex;
+	  private CatalogService catalogService;
+	  private QuoteService quoteService;
+	  private TypeaheadIndex typeaheadIndex;
+	  private GeoGridIndex geoGridIndex;
+	  private FacetIndex facetIndex;
+	  private SortedRoomIndex sortedRoomIndex;
 
-	  public UserController(RoomRepository roomRepository) {
+	  public UserController(RoomRepository roomRepository, RoomAvailabilityIndex availabilityIndex,
+			  					CatalogService catalogService, QuoteService quoteService,
+			  					TypeaheadIndex typeaheadIndex, GeoGridIndex geoGridIndex, FacetIndex facetIndex,
+			  					SortedRoomIndex sortedRoomIndex) {
 	        this.roomRepository = roomRepository;
+	        this.availabilityIndex = availabilityIndex;
+	        this.catalogService = catalogService;
+	        this.quoteService = quoteService;
+	        this.typeaheadIndex = typeaheadIndex;
+	        this.geoGridIndex = geoGridIndex;
+	        this.facetIndex = facetIndex;
+	        this.sortedRoomIndex = sortedRoomIndex;
 	   }
-	  
+
 	  private static final Logger log = LoggerFactory.getLogger("UserController");
-	  
+
+	  public static final int NEARBY_DEFAULT_LIMIT = 20;
+	  private static final int NEARBY_MAX_LIMIT = 100;
+	  public static final int SEARCH_DEFAULT_LIMIT = 20;
+	  private static final int SEARCH_MAX_LIMIT = 100;
+
+	 //rooms one keyset page at a time, pass nextCursor back as 'after' for the next page
 	 @GetMapping("/allRoom")
-	  List<Room> all() {
-	    return (List<Room>) roomRepository.findAll();
+	  CursorPage<RoomSummaryDTO> all(@RequestParam(defaultValue = "0") long after,
+			  @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+		 int pageSize = CursorPage.clampSize(size);
+		 return CursorPage.of(roomRepository.findSummariesAfter(after, PageRequest.of(0, pageSize)),
+				 pageSize, RoomSummaryDTO::getId);
 	  }
-	 
+
+	 //rooms in the hotel that are free for every night of the stay, answered from the availability index
+	 @GetMapping("/availableRooms")
+	 public ResponseEntity availableRooms(@RequestParam Long hotelId,
+			 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+			 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+		 Optional<Dates.ValidationError> error = validateStay(checkInDate, checkOutDate);
+		 if (error.isPresent()) {
+			 return ResponseEntity.badRequest().body(error.get());
+		 }
+		 List<Long> roomIds = availabilityIndex.availableRooms(hotelId, checkInDate, checkOutDate);
+		 return ResponseEntity.ok(catalogService.findRooms(roomIds));
+	 }
+
+	 //autocomplete over hotel names, suburbs and postcodes
+	 @GetMapping("/typeahead")
+	 public List<TypeaheadDTO> typeahead(@RequestParam String q,
+			 @RequestParam(defaultValue = "" + TypeaheadIndex.DEFAULT_LIMIT) int limit) {
+		 return typeaheadIndex.search(q, limit);
+	 }
+
+	 //hotels nearest the point, within radiusKm when given, and with a free room for the stay when dates are given
+	 @GetMapping("/nearby")
+	 public ResponseEntity nearby(@RequestParam double latitude, @RequestParam double longitude,
+			 @RequestParam(required = false) Double radiusKm,
+			 @RequestParam(defaultValue = "" + NEARBY_DEFAULT_LIMIT) int limit,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+		 if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+			 return ResponseEntity.badRequest().body(new Dates.ValidationError("coordinates.invalid",
+					 "Latitude must be within +-90 and longitude within +-180"));
+		 }
+		 LongPredicate filter = hotelId -> true;
+		 if (checkInDate != null || checkOutDate != null) {
+			 Optional<Dates.ValidationError> error = validateStay(checkInDate, checkOutDate);
+			 if (error.isPresent()) {
+				 return ResponseEntity.badRequest().body(error.get());
+			 }
+			 filter = hotelId -> availabilityIndex.hasAvailableRoom(hotelId, checkInDate, checkOutDate);
+		 }
+		 int count = Math.max(1, Math.min(limit, NEARBY_MAX_LIMIT));
+		 if (radiusKm != null) {
+			 return ResponseEntity.ok(geoGridIndex.withinRadius(latitude, longitude, radiusKm, count, filter));
+		 }
+		 return ResponseEntity.ok(geoGridIndex.nearest(latitude, longitude, count, filter));
+	 }
+
+	 //rooms matching every given facet with the room counts for each facet value, free for the stay when dates are given
+	 //pass sort=lowest|highest|name|stars to get the first rooms in that order
+	 @GetMapping("/search")
+	 public ResponseEntity search(@RequestParam(required = false) State state,
+			 @RequestParam(required = false) Integer stars,
+			 @RequestParam(required = false) RoomType roomType,
+			 @RequestParam(required = false) PriceBand priceBand,
+			 @RequestParam(required = false) String sort,
+			 @RequestParam(defaultValue = "" + SEARCH_DEFAULT_LIMIT) int limit,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+		 Optional<SortOrder> order = SortOrder.of(sort);
+		 if (sort != null && !order.isPresent()) {
+			 return ResponseEntity.badRequest().body(invalidSort());
+		 }
+		 LongPredicate available = null;
+		 if (checkInDate != null || checkOutDate != null) {
+			 Optional<Dates.ValidationError> error = validateStay(checkInDate, checkOutDate);
+			 if (error.isPresent()) {
+				 return ResponseEntity.badRequest().body(error.get());
+			 }
+			 available = roomId -> availabilityIndex.isAvailable(roomId, checkInDate, checkOutDate);
+		 }
+		 int count = Math.max(1, Math.min(limit, SEARCH_MAX_LIMIT));
+		 if (!order.isPresent()) {
+			 FacetIndex.Result result = facetIndex.search(state, stars, roomType, priceBand, available, count);
+			 return ResponseEntity.ok(new FacetedSearchDTO(catalogService.findRooms(result.getRoomIds()),
+					 result.getTotal(), result.getFacets()));
+		 }
+		 FacetIndex.Result result = facetIndex.search(state, stars, roomType, priceBand, available, 0);
+		 List<Long> roomIds = sortedRoomIndex.rooms(order.get(),
+				 SortedRoomIndex.facets(state, stars, roomType, priceBand), available, count);
+		 return ResponseEntity.ok(new FacetedSearchDTO(inOrder(roomIds), result.getTotal(), result.getFacets()));
+	 }
+
+	 //hotels in the location sorted by lowest|highest|name|stars, by their cheapest free room for the stay when dates are given
+	 @GetMapping("/hotels")
+	 public ResponseEntity hotels(@RequestParam(required = false) String state,
+			 @RequestParam(required = false) String suburb,
+			 @RequestParam(required = false) String postcode,
+			 @RequestParam(defaultValue = "lowest") String sort,
+			 @RequestParam(defaultValue = "" + SEARCH_DEFAULT_LIMIT) int limit,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+			 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+		 Optional<SortOrder> order = SortOrder.of(sort);
+		 if (!order.isPresent()) {
+			 return ResponseEntity.badRequest().body(invalidSort());
+		 }
+		 LongPredicate available = null;
+		 if (checkInDate != null || checkOutDate != null) {
+			 Optional<Dates.ValidationError> error = validateStay(checkInDate, checkOutDate);
+			 if (error.isPresent()) {
+				 return ResponseEntity.badRequest().body(error.get());
+			 }
+			 available = roomId -> availabilityIndex.isAvailable(roomId, checkInDate, checkOutDate);
+		 }
+		 int count = Math.max(1, Math.min(limit, SEARCH_MAX_LIMIT));
+		 List<Hotel> hotels = new ArrayList<>();
+		 for (Long hotelId : sortedRoomIndex.hotels(order.get(), SortedRoomIndex.location(state, suburb, postcode),
+				 available, count)) {
+			 catalogService.findHotel(hotelId).ifPresent(hotels::add);
+		 }
+		 return ResponseEntity.ok(hotels);
+	 }
+
+	 private List<Room> inOrder(List<Long> roomIds) {
+		 Map<Long, Room> rooms = new HashMap<>();
+		 for (Room room : catalogService.findRooms(roomIds)) {
+			 rooms.put(room.getId(), room);
+		 }
+		 List<Room> sorted = new ArrayList<>(roomIds.size());
+		 for (Long roomId : roomIds) {
+			 Room room = rooms.get(roomId);
+			 if (room != null) {
+				 sorted.add(room);
+			 }
+		 }
+		 return sorted;
+	 }
+
+	 private static Dates.ValidationError invalidSort() {
+		 return new Dates.ValidationError("sort.invalid", "sort must be one of lowest, highest, name or stars");
+	 }
+
+	 //free rooms with their full price for the stay, for one hotel or every hotel matching the location
+	 @GetMapping("/quote")
+	 public ResponseEntity quote(@RequestParam(required = false) Long hotelId,
+			 @RequestParam(required = false) String state,
+			 @RequestParam(required = false) String suburb,
+			 @RequestParam(required = false) String postcode,
+			 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+			 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+			 @RequestParam(defaultValue = "false") boolean lateCheckout) {
+		 Optional<Dates.ValidationError> error = validateStay(checkInDate, checkOutDate);
+		 if (error.isPresent()) {
+			 return ResponseEntity.badRequest().body(error.get());
+		 }
+		 if (hotelId != null) {
+			 return ResponseEntity.ok(Collections.singletonList(
+					 quoteService.quote(hotelId, checkInDate, checkOutDate, lateCheckout)));
+		 }
+		 return ResponseEntity.ok(quoteService.quote(state, suburb, postcode, checkInDate, checkOutDate, lateCheckout));
+	 }
+
+	 private Optional<Dates.ValidationError> validateStay(LocalDate checkInDate, LocalDate checkOutDate) {
+		 return availabilityIndex.validateStay(checkInDate, checkOutDate);
+	 }
+
+
 }
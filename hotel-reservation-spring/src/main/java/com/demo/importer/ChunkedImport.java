@@ -0,0 +1,102 @@
+package com.demo.importer;
+
+import com.demo.exceptions.ImportException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams records from a reader in chunks, parses the chunks on a pool of threads and hands the parsed chunks to a
+ * single writer in file order.
+ *
+ * <p>Only {@code maxInFlight} chunks are ever waiting to be written so memory stays bounded however big the file is,
+ * while parsing of the next chunks overlaps with writing of the current one.</p>
+ */
+class ChunkedImport<T> {
+
+    private final String name;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final ExecutorService parsers;
+    private final Function<ImportRecord, T> parser;
+    private final Consumer<List<T>> writer;
+
+    ChunkedImport(String name, int chunkSize, int maxInFlight, ExecutorService parsers,
+                  Function<ImportRecord, T> parser, Consumer<List<T>> writer) {
+        this.name = name;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.parsers = parsers;
+        this.parser = parser;
+        this.writer = writer;
+    }
+
+    /**
+     * @return The number of records written.
+     */
+    long run(RecordReader reader) throws ImportException {
+        Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+        long written = 0;
+        try {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxInFlight) {
+                        written += write(inFlight.poll());
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(chunk));
+            }
+            while (!inFlight.isEmpty()) {
+                written += write(inFlight.poll());
+            }
+            return written;
+        } catch (IOException e) {
+            throw new ImportException(name + ": " + e.getMessage(), e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<List<T>> submit(List<ImportRecord> chunk) {
+        return parsers.submit(() -> {
+            List<T> parsed = new ArrayList<>(chunk.size());
+            for (ImportRecord record : chunk) {
+                try {
+                    parsed.add(parser.apply(record));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("line " + record.getLine() + ": " + e.getMessage(), e);
+                }
+            }
+            return parsed;
+        });
+    }
+
+    private int write(Future<List<T>> future) throws ImportException {
+        List<T> parsed;
+        try {
+            parsed = future.get();
+        } catch (ExecutionException e) {
+            throw new ImportException(name + " " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException(name + " interrupted", e);
+        }
+        writer.accept(parsed);
+        return parsed.size();
+    }
+}
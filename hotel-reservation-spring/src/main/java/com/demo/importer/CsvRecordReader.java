@@ -0,0 +1,90 @@
+package com.demo.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Csv with a header row. Fields may be double quoted to contain commas, a doubled quote inside a quoted field is a
+ * literal quote. Blank lines and lines starting with {@code #} are skipped.
+ */
+public class CsvRecordReader implements RecordReader {
+
+    private final BufferedReader reader;
+
+    private final List<String> header;
+
+    private long line;
+
+    public CsvRecordReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String first = nextLine();
+        this.header = first == null ? new ArrayList<>() : split(first);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        String text = nextLine();
+        if (text == null) {
+            return null;
+        }
+        List<String> fields = split(text);
+        if (fields.size() > header.size()) {
+            throw new IOException("Line " + line + " has " + fields.size() + " fields but the header has "
+                    + header.size());
+        }
+        Map<String, String> values = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i), fields.get(i));
+        }
+        return new ImportRecord(line, values);
+    }
+
+    private String nextLine() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && (text.trim().isEmpty() || text.startsWith("#")));
+        return text;
+    }
+
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
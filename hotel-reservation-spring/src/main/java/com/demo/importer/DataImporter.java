@@ -0,0 +1,237 @@
+package com.demo.importer;
+
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import com.demo.exceptions.ImportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads hotels, rooms and historic bookings from csv or json files on start up, see {@code app.import.*}.
+ *
+ * <p>Records are parsed in parallel and written one chunk per transaction. The persistence context is cleared after
+ * every chunk so it never grows beyond {@code chunk-size} entities, and the inserts within a chunk go out in JDBC
+ * batches.</p>
+ *
+ * <p>Rooms reference their hotel by the hotel {@code code} column and bookings reference their room by room number.
+ * Files are imported in that order.</p>
+ */
+@Component
+@Profile({"!test", "!integration"})
+@ConditionalOnProperty(name = "app.import.enabled", havingValue = "true", matchIfMissing = true)
+public class DataImporter {
+
+    private static final Logger log = LoggerFactory.getLogger("DataImporter");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceLoader resourceLoader;
+    private final String hotelsLocation;
+    private final String roomsLocation;
+    private final String bookingsLocation;
+    private final int chunkSize;
+    private final int parallelism;
+
+    // Filled in by the writer as rows are inserted, only read by the parsers of the following file.
+    private final Map<String, Long> hotelIds = new HashMap<>();
+    private final Map<String, Long> roomIds = new HashMap<>();
+
+    public DataImporter(TransactionTemplate transactionTemplate, ResourceLoader resourceLoader,
+                        @Value("${app.import.hotels:}") String hotelsLocation,
+                        @Value("${app.import.rooms:}") String roomsLocation,
+                        @Value("${app.import.bookings:}") String bookingsLocation,
+                        @Value("${app.import.chunk-size:1000}") int chunkSize,
+                        @Value("${app.import.parallelism:0}") int parallelism) {
+        this.transactionTemplate = transactionTemplate;
+        this.resourceLoader = resourceLoader;
+        this.hotelsLocation = hotelsLocation;
+        this.roomsLocation = roomsLocation;
+        this.bookingsLocation = bookingsLocation;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Bean
+    public CommandLineRunner importData() {
+        return args -> importAll();
+    }
+
+    public void importAll() throws ImportException {
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            long hotels = importFile(hotelsLocation, parsers, this::parseHotel, this::writeHotels);
+            long rooms = importFile(roomsLocation, parsers, this::parseRoom, this::writeRooms);
+            long bookings = importFile(bookingsLocation, parsers, this::parseBooking, this::writeBookings);
+            log.info("Imported {} hotels, {} rooms and {} bookings in {} ms", hotels, rooms, bookings,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+
+    private <T> long importFile(String location, ExecutorService parsers, Function<ImportRecord, T> parser,
+                                Consumer<List<T>> writer) throws ImportException {
+        if (location == null || location.trim().isEmpty()) {
+            return 0;
+        }
+        Resource resource = resourceLoader.getResource(location);
+        try (RecordReader reader = RecordReader.open(resource)) {
+            // two chunks per parser keeps every parser busy while the writer works through a chunk.
+            return new ChunkedImport<>(location, chunkSize, parallelism * 2, parsers, parser, writer).run(reader);
+        } catch (IOException e) {
+            throw new ImportException(location + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void writeChunk(Runnable inserts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            inserts.run();
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static final class HotelRow {
+        final String code;
+        final Hotel hotel;
+
+        HotelRow(String code, Hotel hotel) {
+            this.code = code;
+            this.hotel = hotel;
+        }
+    }
+
+    private HotelRow parseHotel(ImportRecord record) {
+        Address address = new Address(record.get("business"), record.require("streetLine1"),
+                record.get("streetLine2"), State.valueOf(record.require("state")), record.require("suburb"),
+                new Postcode(record.require("postcode")));
+        String latitude = record.get("latitude");
+        String longitude = record.get("longitude");
+        if (latitude != null && longitude != null) {
+            address.setLatitude(Double.valueOf(latitude));
+            address.setLongitude(Double.valueOf(longitude));
+        }
+        Hotel hotel = new Hotel(record.require("name"), address, Integer.parseInt(record.require("stars")),
+                record.require("email"),
+                LocalTime.parse(record.require("earliestCheckInTime")),
+                LocalTime.parse(record.require("latestCheckInTime")),
+                LocalTime.parse(record.require("standardCheckOutTime")),
+                LocalTime.parse(record.require("latestCheckOutTime")),
+                new BigDecimal(record.require("lateCheckoutFee")));
+        return new HotelRow(record.require("code"), hotel);
+    }
+
+    private void writeHotels(List<HotelRow> rows) {
+        writeChunk(() -> {
+            for (HotelRow row : rows) {
+                entityManager.persist(row.hotel);
+                hotelIds.put(row.code, row.hotel.getId());
+            }
+        });
+    }
+
+    private static final class RoomRow {
+        final Long hotelId;
+        final Room room;
+
+        RoomRow(Long hotelId, Room room) {
+            this.hotelId = hotelId;
+            this.room = room;
+        }
+    }
+
+    private RoomRow parseRoom(ImportRecord record) {
+        String hotel = record.require("hotel");
+        Long hotelId = hotelIds.get(hotel);
+        if (hotelId == null) {
+            throw new IllegalArgumentException("Unknown hotel " + hotel);
+        }
+        Room room = new Room(record.require("roomNumber"), RoomType.valueOf(record.require("roomType")),
+                Integer.parseInt(record.require("beds")), new BigDecimal(record.require("costPerNight")));
+        return new RoomRow(hotelId, room);
+    }
+
+    private void writeRooms(List<RoomRow> rows) {
+        writeChunk(() -> {
+            for (RoomRow row : rows) {
+                row.room.setHotel(entityManager.getReference(Hotel.class, row.hotelId));
+                entityManager.persist(row.room);
+                roomIds.put(row.room.getRoomNumber(), row.room.getId());
+            }
+        });
+    }
+
+    private static final class BookingRow {
+        final Long roomId;
+        final Booking booking;
+
+        BookingRow(Long roomId, Booking booking) {
+            this.roomId = roomId;
+            this.booking = booking;
+        }
+    }
+
+    private BookingRow parseBooking(ImportRecord record) {
+        String roomNumber = record.require("room");
+        Long roomId = roomIds.get(roomNumber);
+        if (roomId == null) {
+            throw new IllegalArgumentException("Unknown room " + roomNumber);
+        }
+        LocalDate checkIn = LocalDate.parse(record.require("checkInDate"));
+        LocalDate checkOut = LocalDate.parse(record.require("checkOutDate"));
+        if (!checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("Check out must be after check in");
+        }
+        String createdTime = record.get("createdTime");
+
+        Booking booking = new Booking();
+        booking.setDates(new Dates(checkIn, checkOut,
+                LocalTime.parse(record.require("estimatedCheckInTime")),
+                Boolean.parseBoolean(record.get("lateCheckout")), true));
+        booking.setCreatedTime(createdTime == null ? checkIn.atStartOfDay() : LocalDateTime.parse(createdTime));
+        return new BookingRow(roomId, booking);
+    }
+
+    private void writeBookings(List<BookingRow> rows) {
+        writeChunk(() -> {
+            for (BookingRow row : rows) {
+                row.booking.setRoom(entityManager.getReference(Room.class, row.roomId));
+                row.booking.occupyNights();
+                entityManager.persist(row.booking);
+            }
+        });
+    }
+}
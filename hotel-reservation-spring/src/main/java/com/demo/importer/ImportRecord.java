@@ -0,0 +1,48 @@
+package com.demo.importer;
+
+import java.util.Map;
+
+/**
+ * A single row read from an import file, columns are looked up by the names in the header or json keys.
+ */
+public class ImportRecord {
+
+    private final long line;
+
+    private final Map<String, String> values;
+
+    public ImportRecord(long line, Map<String, String> values) {
+        this.line = line;
+        this.values = values;
+    }
+
+    /**
+     * @return The line the record starts on, for error messages.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return The trimmed value or {@code null} if the column is missing or blank.
+     */
+    public String get(String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the column is missing or blank.
+     */
+    public String require(String column) {
+        String value = get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package com.demo.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A json array of flat objects, parsed token by token so the array is never held in memory.
+ */
+public class JsonRecordReader implements RecordReader {
+
+    private final JsonParser parser;
+
+    public JsonRecordReader(InputStream in) throws IOException {
+        this.parser = new JsonFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a json array at " + parser.getCurrentLocation());
+        }
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a json object at " + parser.getCurrentLocation());
+        }
+        long line = parser.getCurrentLocation().getLineNr();
+        Map<String, String> values = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                throw new IOException("Nested value for " + name + " at " + parser.getCurrentLocation());
+            }
+            values.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+        }
+        return new ImportRecord(line, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
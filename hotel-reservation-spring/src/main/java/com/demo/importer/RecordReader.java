@@ -0,0 +1,29 @@
+package com.demo.importer;
+
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the records of an import file one at a time so files of any size can be imported in constant memory.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * @return The next record or {@code null} at the end of the file.
+     */
+    ImportRecord next() throws IOException;
+
+    /**
+     * Picks the reader from the file extension, {@code .json} files hold an array of flat objects and anything else
+     * is read as csv with a header row.
+     */
+    static RecordReader open(Resource resource) throws IOException {
+        String name = resource.getFilename() == null ? "" : resource.getFilename().toLowerCase();
+        if (name.endsWith(".json")) {
+            return new JsonRecordReader(resource.getInputStream());
+        }
+        return new CsvRecordReader(resource.getInputStream());
+    }
+}
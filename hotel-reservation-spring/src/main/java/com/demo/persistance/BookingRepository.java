@@ -1,12 +1,46 @@
 package com.demo.persistance;
 
-import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.demo.domain.Booking;
+import com.demo.dto.BookedRoomDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface BookingRepository  extends  CrudRepository<Booking, Long> {
+
+    /**
+     * Keyset page of booked rooms ordered by booking id. Only the size of the {@code Pageable} is used, the
+     * offset is always 0 since {@code afterId} positions the page.
+     */
+    @Query("select new com.demo.dto.BookedRoomDTO(b.id, r.id, r.roomNumber, h.id, h.name, " +
+            "b.dates.checkInDate, b.dates.checkOutDate) " +
+            "from Booking b join b.room r left join r.hotel h " +
+            "where b.id > :afterId order by b.id")
+    List<BookedRoomDTO> findBookedRoomsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * The booking with its room, the room's hotel and the guests loaded up front.
+     */
+    @EntityGraph(Booking.DETAIL)
+    Optional<Booking> findDetailById(Long id);
+
+    /**
+     * @return {@code true} if any booking, past or future, is for the room.
+     */
+    boolean existsByRoomId(Long roomId);
+
+    /**
+     * The booking made with the client supplied reservation id, loaded like {@link #findDetailById}.
+     */
+    @EntityGraph(Booking.DETAIL)
+    Optional<Booking> findDetailByReservationId(UUID reservationId);
 }
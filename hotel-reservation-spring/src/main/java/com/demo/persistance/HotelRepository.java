@@ -1,28 +1,48 @@
 package com.demo.persistance;
 
 import com.demo.domain.Hotel;
-import com.demo.domain.Room;
+import com.demo.persistance.predicates.HotelPredicates;
+import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Optional;
+
 @Repository
 public interface HotelRepository extends PagingAndSortingRepository<Hotel, Long>, QuerydslPredicateExecutor<Hotel> {
 
-   
-    @Query("select h from Hotel h " +
-            "where upper(h.address.state) = coalesce(upper(:state), upper(h.address.state)) " +
-            "and upper(h.address.suburb) = coalesce(upper(:suburb), upper(h.address.suburb)) " +
-            "and h.address.postcode.value = coalesce(:postcode, h.address.postcode.value)"
-    )
-    Page<Hotel> findAllByLocation(@Param("state") String state,
-                                  @Param("suburb") String suburb,
-                                  @Param("postcode") String postcode,
-                                  Pageable pageable);
-    
+    String LOCATION_QUERY_REGION = "hotelsByLocation";
+
+    /**
+     * @see HotelPredicates#byLocation(String, String, String)
+     */
+    default Page<Hotel> findAllByLocation(String state, String suburb, String postcode, Pageable pageable) {
+        return findAll(HotelPredicates.byLocation(state, suburb, postcode), pageable);
+    }
+
+    /**
+     * Results are held in the query cache, Hibernate drops them whenever the hotel table is written.
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = LOCATION_QUERY_REGION)
+    })
+    Page<Hotel> findAll(Predicate predicate, Pageable pageable);
+
+    /**
+     * The hotel with all of its rooms fetched in one join rather than a select per room.
+     */
+    @Query("select distinct h from Hotel h left join fetch h.rooms where h.id = :id")
+    Optional<Hotel> findWithRoomsById(@Param("id") Long id);
+
 }
@@ -0,0 +1,95 @@
+package com.demo.persistance;
+
+import com.demo.dto.WriteConflictStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write again when a concurrent write to the same versioned entity commits first, see {@code app.retry.*}.
+ *
+ * <p>Each attempt must be a whole transaction that reads what it changes, so the retry sees the winner's write.
+ * Attempts back off for a random time up to {@code backoff} times the attempt number, so writers that collided do
+ * not collide again. Conflicts are counted per kind of write.</p>
+ */
+@Component
+public class OptimisticRetry {
+
+    public static final String ROOM_UPDATE = "room.update";
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(@Value("${app.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${app.retry.backoff:PT0.02S}") Duration backoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    /**
+     * @param name  The kind of write the conflicts are counted under.
+     * @param write One attempt at the write.
+     * @return The result of the first attempt that did not conflict.
+     * @throws OptimisticLockingFailureException If every attempt conflicted.
+     */
+    public <T> T execute(String name, Supplier<T> write) {
+        Counters count = counters.computeIfAbsent(name, n -> new Counters());
+        count.writes.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                count.conflicts.increment();
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    count.failures.increment();
+                    throw e;
+                }
+                count.retries.increment();
+            }
+        }
+    }
+
+    public List<WriteConflictStatsDTO> stats() {
+        List<WriteConflictStatsDTO> stats = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters count = entry.getValue();
+            stats.add(new WriteConflictStatsDTO(entry.getKey(), count.writes.sum(), count.conflicts.sum(),
+                    count.retries.sum(), count.failures.sum()));
+        }
+        return stats;
+    }
+
+    /**
+     * @return {@code false} if interrupted, in which case the write is given up.
+     */
+    private boolean backOff(int attempt) {
+        if (backoffMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder writes = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo.persistance;
+
+import com.demo.domain.RoomNight;
+import com.demo.domain.RoomNightId;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface RoomNightRepository extends CrudRepository<RoomNight, RoomNightId> {
+
+    /**
+     * @return {@code true} if any night in {@code [from, to)} is occupied for the room.
+     */
+    @Query("select case when count(n) > 0 then true else false end from RoomNight n " +
+            "where n.id.roomId = :roomId and n.id.night >= :from and n.id.night < :to")
+    boolean isBooked(@Param("roomId") Long roomId,
+                     @Param("from") LocalDate from,
+                     @Param("to") LocalDate to);
+
+    /**
+     * The occupied nights of the room in {@code [from, to)}.
+     */
+    @Query("select n.id.night from RoomNight n " +
+            "where n.id.roomId = :roomId and n.id.night >= :from and n.id.night < :to")
+    List<LocalDate> findBookedNights(@Param("roomId") Long roomId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Every occupied night in {@code [from, to)}. Must be consumed inside a transaction.
+     */
+    @Query("select n.id from RoomNight n where n.id.night >= :from and n.id.night < :to")
+    Stream<RoomNightId> streamNightsBetween(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    /**
+     * @return The number of rooms in the hotel occupied on the night.
+     */
+    @Query("select count(n) from RoomNight n, Room r " +
+            "where r.id = n.id.roomId and r.hotel.id = :hotelId and n.id.night = :night")
+    long countOccupiedRooms(@Param("hotelId") Long hotelId,
+                            @Param("night") LocalDate night);
+}
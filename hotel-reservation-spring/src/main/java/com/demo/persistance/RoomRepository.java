@@ -1,11 +1,73 @@
 package com.demo.persistance;
 
 import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.dto.RoomSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RoomRepository extends PagingAndSortingRepository<Room, Long>, QuerydslPredicateExecutor<Room>  {
 
+    /**
+     * Ids of every room with its hotel id, without loading the entities.
+     */
+    @Query("select r.id as roomId, h.id as hotelId from Room r left join r.hotel h")
+    List<RoomHotelId> findAllRoomHotelIds();
+
+    /**
+     * The fields every room is faceted and sorted on, see {@code FacetIndex}, without loading the entities.
+     */
+    @Query("select r.id as roomId, h.id as hotelId, r.roomNumber as roomNumber, r.roomType as roomType, " +
+            "r.costPerNight as costPerNight from Room r left join r.hotel h")
+    List<RoomFacets> findAllRoomFacets();
+
+    /**
+     * Keyset page of rooms ordered by id, projected so neither the hotel nor any bookings are loaded.
+     * Only the size of the {@code Pageable} is used.
+     */
+    @Query("select new com.demo.dto.RoomSummaryDTO(r.id, h.id, r.roomNumber, r.roomType, r.beds, r.costPerNight) " +
+            "from Room r left join r.hotel h " +
+            "where r.id > :afterId order by r.id")
+    List<RoomSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * The room with its {@code Hotel} loaded in the same select, for responses that serialize the hotel.
+     */
+    @EntityGraph(Room.WITH_HOTEL)
+    Optional<Room> findWithHotelById(Long id);
+
+    /**
+     * All the rooms with the given ids along with their hotels in a single select.
+     */
+    @EntityGraph(Room.WITH_HOTEL)
+    List<Room> findByIdIn(Collection<Long> ids);
+
+    interface RoomHotelId {
+        Long getRoomId();
+
+        Long getHotelId();
+    }
+
+    interface RoomFacets {
+        Long getRoomId();
+
+        Long getHotelId();
+
+        String getRoomNumber();
+
+        RoomType getRoomType();
+
+        BigDecimal getCostPerNight();
+    }
 }
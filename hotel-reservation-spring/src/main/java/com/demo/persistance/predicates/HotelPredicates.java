@@ -1,9 +1,13 @@
 package com.demo.persistance.predicates;
 
 import com.demo.domain.QHotel;
+import com.demo.domain.location.Address;
 import com.demo.domain.location.QAddress;
+import com.demo.domain.location.State;
 import com.querydsl.core.types.Predicate;
 
+import java.util.Locale;
+
 public final class HotelPredicates {
 
     private static final QHotel hotel = QHotel.hotel;
@@ -11,19 +15,27 @@ public final class HotelPredicates {
     private HotelPredicates() {
     }
 
+    /**
+     * Hotels matching every supplied location part, {@code null} parts match anything. State and suburb are case
+     * insensitive and the postcode must match exactly.
+     *
+     * <p>The arguments are normalized here rather than wrapping the columns in {@code upper()} so each part is a
+     * plain equality the location indexes on {@code Hotel} can serve.</p>
+     */
     public static Predicate byLocation(String state, String suburb, String postcode) {
         QAddress address = hotel.address;
-
-        /*
-         * This is the same as doing a coalesce except coalesce cannot be used like you think it could be.
-         *
-         * if arg to coalesce is null, an exception is thrown. coalesce will only return its arg if the left hand side
-         * 'this' instance is null so its the wrong way round for what we want to do.
-         * address.state.stringValue().coalesce(state)
-         */
         return new WhereClauseBuilder()
-                .andNullable(state, () -> address.state.stringValue().equalsIgnoreCase(state))
-                .andNullable(suburb, () -> address.suburb.equalsIgnoreCase(suburb))
-                .andNullable(postcode, () -> address.postcode.value.eq(postcode));
+                .andNullable(state, () -> stateEq(address, state))
+                .andNullable(suburb, () -> address.suburbKey.eq(Address.suburbKey(suburb)))
+                .andNullable(postcode, () -> address.postcode.value.eq(postcode.trim()));
+    }
+
+    private static Predicate stateEq(QAddress address, String state) {
+        try {
+            return address.state.eq(State.valueOf(state.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            // not a state so nothing can match, state is never null.
+            return address.state.isNull();
+        }
     }
 }
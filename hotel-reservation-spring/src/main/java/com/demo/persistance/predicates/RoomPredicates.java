@@ -1,20 +1,31 @@
 package com.demo.persistance.predicates;
 
 import com.demo.domain.QRoom;
+import com.demo.domain.QRoomNight;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAExpressions;
+
+import java.time.LocalDate;
 
 public final class RoomPredicates {
 
     private static final QRoom room = QRoom.room;
+    private static final QRoomNight roomNight = QRoomNight.roomNight;
 
     private RoomPredicates() {
     }
 
     /**
      * Gets all the available rooms in the hotel identified by the supplied {@code hotelId}.
-     * An available room means it has no {@code Reservation} assigned to it.
+     * An available room means no {@code RoomNight} is occupied between {@code checkInDate} inclusive and
+     * {@code checkOutDate} exclusive.
      */
-    public static Predicate availableRoom(Long hotelId) {
-        return room.hotel.id.eq(hotelId).and(room.reservation.isNull());
+    public static Predicate availableRoom(Long hotelId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return room.hotel.id.eq(hotelId).and(JPAExpressions.selectOne()
+                .from(roomNight)
+                .where(roomNight.id.roomId.eq(room.id),
+                        roomNight.id.night.goe(checkInDate),
+                        roomNight.id.night.lt(checkOutDate))
+                .notExists());
     }
 }
@@ -0,0 +1,99 @@
+package com.demo.quote;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.pricing.PriceBreakdown;
+import com.demo.domain.pricing.PricingEngine;
+import com.demo.dto.HotelQuoteDTO;
+import com.demo.dto.RoomQuoteDTO;
+import com.demo.persistance.HotelRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices every free room of a hotel for a stay without creating a {@code Booking}.
+ *
+ * <p>A room's price only depends on the catalog, the number of nights and late checkout, so the priced rooms of a
+ * hotel are cached under that key in {@link CatalogService#QUOTES}. Availability changes with every booking and is
+ * always read live from the {@link RoomAvailabilityIndex}.</p>
+ */
+@Service
+public class QuoteService {
+
+    /**
+     * Upper bound on hotels quoted for a location search.
+     */
+    public static final int MAX_HOTELS = 50;
+
+    private final CatalogService catalogService;
+    private final HotelRepository hotelRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CacheManager cacheManager;
+
+    public QuoteService(CatalogService catalogService, HotelRepository hotelRepository,
+                        RoomAvailabilityIndex availabilityIndex, CacheManager cacheManager) {
+        this.catalogService = catalogService;
+        this.hotelRepository = hotelRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Quotes the first {@link #MAX_HOTELS} hotels matching the location, any of which may be {@code null}.
+     */
+    public List<HotelQuoteDTO> quote(String state, String suburb, String postcode,
+                                     LocalDate checkInDate, LocalDate checkOutDate, boolean lateCheckout) {
+        List<HotelQuoteDTO> quotes = new ArrayList<>();
+        for (Hotel hotel : hotelRepository.findAllByLocation(state, suburb, postcode, PageRequest.of(0, MAX_HOTELS))) {
+            quotes.add(quote(hotel.getId(), checkInDate, checkOutDate, lateCheckout));
+        }
+        return quotes;
+    }
+
+    /**
+     * The caller is expected to have validated the dates, see {@code Dates#validate}.
+     */
+    public HotelQuoteDTO quote(Long hotelId, LocalDate checkInDate, LocalDate checkOutDate, boolean lateCheckout) {
+        long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        Map<Long, RoomQuoteDTO> prices = prices(hotelId, nights, lateCheckout);
+
+        List<RoomQuoteDTO> rooms = new ArrayList<>();
+        for (Long roomId : availabilityIndex.availableRooms(hotelId, checkInDate, checkOutDate)) {
+            RoomQuoteDTO room = prices.get(roomId);
+            // null for a room added after the prices were cached and before the cache was cleared.
+            if (room != null) {
+                rooms.add(room);
+            }
+        }
+        return new HotelQuoteDTO(hotelId, checkInDate, checkOutDate, nights, lateCheckout, rooms);
+    }
+
+    private Map<Long, RoomQuoteDTO> prices(Long hotelId, long nights, boolean lateCheckout) {
+        Cache cache = cacheManager.getCache(CatalogService.QUOTES);
+        return cache.get(new SimpleKey(hotelId, nights, lateCheckout), () -> {
+            PriceBreakdown price = new PriceBreakdown();
+            Map<Long, RoomQuoteDTO> prices = new LinkedHashMap<>();
+            for (Room room : catalogService.findRooms(availabilityIndex.hotelRooms(hotelId))) {
+                long lateCheckoutFee = room.getHotel() == null ? 0
+                        : PricingEngine.toCents(room.getHotel().getLateCheckoutFee());
+                PricingEngine.price(room.getRoomType(), PricingEngine.toCents(room.getCostPerNight()),
+                        lateCheckoutFee, nights, lateCheckout, price);
+                prices.put(room.getId(), new RoomQuoteDTO(room, price));
+            }
+            return Collections.unmodifiableMap(prices);
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.demo.reactive;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Request parsing and blocking calls for the handlers.
+ *
+ * <p>Malformed parameters throw {@link ServerWebInputException}, answered with 400 like a type mismatch on an MVC
+ * {@code @RequestParam}.</p>
+ */
+final class HandlerSupport {
+
+    private HandlerSupport() {
+    }
+
+    /**
+     * Runs a blocking call, eg one that may read through JPA, on the bounded elastic scheduler rather than the event
+     * loop. A returned {@code ResponseEntity} keeps its status and headers, anything else is sent with 200.
+     */
+    static Mono<ServerResponse> offload(Callable<?> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(HandlerSupport::toResponse);
+    }
+
+    private static Mono<ServerResponse> toResponse(Object result) {
+        if (!(result instanceof ResponseEntity)) {
+            return ServerResponse.ok().bodyValue(result);
+        }
+        ResponseEntity<?> entity = (ResponseEntity<?>) result;
+        ServerResponse.BodyBuilder response = ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()));
+        return entity.hasBody() ? response.bodyValue(entity.getBody()) : response.build();
+    }
+
+    static <T> Mono<T> body(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Missing request body")));
+    }
+
+    static Long pathId(ServerRequest request) {
+        return parse("id", request.pathVariable("id"), Long::valueOf);
+    }
+
+    static Optional<String> string(ServerRequest request, String name) {
+        return request.queryParam(name).map(String::trim).filter(value -> !value.isEmpty());
+    }
+
+    static String requiredString(ServerRequest request, String name) {
+        return string(request, name).orElseThrow(() -> missing(name));
+    }
+
+    static Optional<Long> longParam(ServerRequest request, String name) {
+        return string(request, name).map(value -> parse(name, value, Long::valueOf));
+    }
+
+    static Optional<Integer> intParam(ServerRequest request, String name) {
+        return string(request, name).map(value -> parse(name, value, Integer::valueOf));
+    }
+
+    static Optional<Double> doubleParam(ServerRequest request, String name) {
+        return string(request, name).map(value -> parse(name, value, Double::valueOf));
+    }
+
+    static double requiredDouble(ServerRequest request, String name) {
+        return doubleParam(request, name).orElseThrow(() -> missing(name));
+    }
+
+    static Optional<Boolean> booleanParam(ServerRequest request, String name) {
+        return string(request, name).map(value -> parse(name, value, HandlerSupport::parseBoolean));
+    }
+
+    static Optional<LocalDate> dateParam(ServerRequest request, String name) {
+        return string(request, name).map(value -> parse(name, value, LocalDate::parse));
+    }
+
+    static LocalDate requiredDate(ServerRequest request, String name) {
+        return dateParam(request, name).orElseThrow(() -> missing(name));
+    }
+
+    static <E extends Enum<E>> Optional<E> enumParam(ServerRequest request, String name, Class<E> type) {
+        return string(request, name).map(value -> parse(name, value, constant -> Enum.valueOf(type, constant)));
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    private static <T> T parse(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException, as is an unknown enum constant.
+            throw new ServerWebInputException("Invalid value '" + value + "' for parameter " + name);
+        }
+    }
+
+    private static ServerWebInputException missing(String name) {
+        return new ServerWebInputException("Missing parameter " + name);
+    }
+}
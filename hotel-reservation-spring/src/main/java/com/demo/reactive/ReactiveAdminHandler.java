@@ -0,0 +1,107 @@
+package com.demo.reactive;
+
+import com.demo.admin.AdminController;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.dto.CursorPage;
+import com.demo.dto.RoomDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static com.demo.reactive.HandlerSupport.*;
+
+/**
+ * Reactive variant of the {@code AdminController} endpoints. The catalog is written through JPA, so the
+ * {@link AdminController} methods are called off the event loop. The controller is built and autowired by the bean
+ * factory but not registered, so WebFlux does not map it to run on the event loop.
+ *
+ * <p>Hotels are validated like the controller's {@code @Valid} parameters before they reach JPA.</p>
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAdminHandler {
+
+    private final AdminController admin;
+    private final Validator validator;
+
+    @Autowired
+    public ReactiveAdminHandler(AutowireCapableBeanFactory beanFactory, Validator validator) {
+        this(beanFactory.createBean(AdminController.class), validator);
+    }
+
+    ReactiveAdminHandler(AdminController admin, Validator validator) {
+        this.admin = admin;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> createRoom(ServerRequest request) {
+        return body(request, RoomDTO.class).flatMap(room -> offload(() -> admin.addRoom(room)));
+    }
+
+    public Mono<ServerResponse> updateRoom(ServerRequest request) {
+        Long id = pathId(request);
+        return body(request, RoomDTO.class).flatMap(room -> offload(() -> admin.updateRoom(room, id)));
+    }
+
+    public Mono<ServerResponse> deleteRoom(ServerRequest request) {
+        Long id = pathId(request);
+        return offload(() -> admin.deleteRoom(id));
+    }
+
+    public Mono<ServerResponse> getRoom(ServerRequest request) {
+        Long id = pathId(request);
+        return offload(() -> admin.one(id));
+    }
+
+    public Mono<ServerResponse> allRooms(ServerRequest request) {
+        long after = longParam(request, "after").orElse(0L);
+        int size = intParam(request, "size").orElse(CursorPage.DEFAULT_SIZE);
+        return offload(() -> admin.all(after, size));
+    }
+
+    public Mono<ServerResponse> createHotel(ServerRequest request) {
+        return body(request, Hotel.class).flatMap(hotel -> validated(hotel, () -> admin.addHotel(hotel)));
+    }
+
+    public Mono<ServerResponse> updateHotel(ServerRequest request) {
+        Long id = pathId(request);
+        return body(request, Hotel.class).flatMap(hotel -> validated(hotel, () -> admin.updateHotel(hotel, id)));
+    }
+
+    public Mono<ServerResponse> cacheStats(ServerRequest request) {
+        return offload(admin::cacheStats);
+    }
+
+    public Mono<ServerResponse> writeConflicts(ServerRequest request) {
+        return offload(admin::writeConflicts);
+    }
+
+    /**
+     * Offloads the call if the hotel is valid, otherwise answers 400 with a {@link Dates.ValidationError} per field.
+     */
+    private Mono<ServerResponse> validated(Hotel hotel, Callable<?> call) {
+        Errors errors = new BeanPropertyBindingResult(hotel, "hotel");
+        validator.validate(hotel, errors);
+        if (!errors.hasErrors()) {
+            return offload(call);
+        }
+        List<Dates.ValidationError> invalid = errors.getAllErrors().stream()
+                .map(error -> new Dates.ValidationError(error instanceof FieldError
+                        ? ((FieldError) error).getField() : error.getObjectName(), error.getDefaultMessage()))
+                .collect(Collectors.toList());
+        return ServerResponse.badRequest().bodyValue(invalid);
+    }
+}
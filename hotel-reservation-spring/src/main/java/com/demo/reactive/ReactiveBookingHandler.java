@@ -0,0 +1,208 @@
+package com.demo.reactive;
+
+import com.demo.booking.BookingEngine;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.dto.BookedRoomDTO;
+import com.demo.dto.BookingResultDTO;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.InvalidBookingException;
+import com.demo.exceptions.NotFoundException;
+import com.demo.hotel.BookingController;
+import com.demo.persistance.BookingRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reactive variant of {@code BookingController}, same paths and payloads.
+ *
+ * <p>Nights are claimed through {@link BookingEngine} exactly as the MVC endpoints do, then written with R2DBC. The
+ * claim reads the room from the catalog cache, only a cache miss goes to the database through JPA, so it runs on the
+ * bounded elastic scheduler rather than the event loop.</p>
+ */
+@Component
+@Profile("reactive")
+public class ReactiveBookingHandler {
+
+    private final BookingEngine bookingEngine;
+    private final ReactiveBookingStore store;
+    private final BookingRepository bookingRepository;
+
+    public ReactiveBookingHandler(BookingEngine bookingEngine, ReactiveBookingStore store,
+                                  BookingRepository bookingRepository) {
+        this.bookingEngine = bookingEngine;
+        this.store = store;
+        this.bookingRepository = bookingRepository;
+    }
+
+    public Mono<ServerResponse> createRoomBooking(ServerRequest request) {
+        return request.bodyToMono(Booking.class)
+                .flatMap(booking -> Mono.fromCallable(() -> {
+                            idempotencyKey(request).ifPresent(booking::setReservationId);
+                            Optional<Booking> replayed = bookingEngine.replay(booking);
+                            if (replayed.isPresent()) {
+                                return replayed.get();
+                            }
+                            try {
+                                bookingEngine.claim(booking);
+                            } catch (BookingConflictException e) {
+                                // A retry no longer remembered finds its own nights taken.
+                                return bookingEngine.findBooked(booking).orElseThrow(() -> e);
+                            }
+                            return booking;
+                        })
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(claimed -> claimed != booking ? Mono.just(claimed)
+                                : store.insert(Collections.singletonList(claimed))
+                                .doOnSuccess(done -> bookingEngine.remember(claimed))
+                                .thenReturn(claimed)
+                                .onErrorResume(e -> rejected(claimed, e))))
+                .flatMap(booking -> ServerResponse.ok().bodyValue(booking))
+                .onErrorResume(InvalidBookingException.class, e -> ServerResponse.badRequest().bodyValue(e.getError()))
+                .onErrorResume(NotFoundException.class, e -> ServerResponse.notFound().build())
+                .onErrorResume(BookingConflictException.class,
+                        e -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(e.getMessage()));
+    }
+
+    /**
+     * Gives back the claim of a booking the insert failed on. Nights the ledger primary key rejected stay occupied,
+     * and a retry rejected on its own reservation id or nights gets the original booking. Both read through JPA, off
+     * the event loop.
+     */
+    private Mono<Booking> rejected(Booking booking, Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            bookingEngine.release(booking);
+            return Mono.error(e);
+        }
+        return Mono.fromCallable(() -> {
+                    bookingEngine.releaseRejected(booking);
+                    return bookingEngine.findBooked(booking).orElseThrow(() -> bookingEngine.conflict(booking));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Optional<UUID> idempotencyKey(ServerRequest request) throws InvalidBookingException {
+        try {
+            return request.headers().header(BookingController.IDEMPOTENCY_KEY).stream().findFirst()
+                    .map(UUID::fromString);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBookingException(new Dates.ValidationError("idempotencyKey.invalid",
+                    BookingController.IDEMPOTENCY_KEY + " must be a UUID"));
+        }
+    }
+
+    /**
+     * All the claimed bookings go in one transaction. Should it fail they are retried one at a time, like
+     * {@link BookingEngine#bookAll}.
+     */
+    public Mono<ServerResponse> createBulkBooking(ServerRequest request) {
+        return request.bodyToFlux(Booking.class)
+                .collectList()
+                .flatMap(bookings -> {
+                    if (bookings.size() > BookingEngine.MAX_BULK_BOOKINGS) {
+                        return ServerResponse.badRequest().bodyValue(new Dates.ValidationError("bookings.tooMany",
+                                "At most " + BookingEngine.MAX_BULK_BOOKINGS + " bookings can be made at once"));
+                    }
+                    return Mono.fromCallable(() -> bookingEngine.claimAll(bookings))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(results -> persistClaimed(bookings, results))
+                            .flatMap(results -> ServerResponse.ok().bodyValue(results));
+                });
+    }
+
+    private Mono<List<BookingResultDTO>> persistClaimed(List<Booking> bookings, BookingResultDTO[] results) {
+        List<Integer> claimed = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                claimed.add(i);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return Mono.just(Arrays.asList(results));
+        }
+        List<Booking> batch = new ArrayList<>(claimed.size());
+        claimed.forEach(i -> batch.add(bookings.get(i)));
+
+        Mono<Void> all = store.insert(batch)
+                .doOnSuccess(done -> claimed.forEach(i -> {
+                    results[i] = BookingResultDTO.booked(i, bookings.get(i));
+                    bookingEngine.remember(bookings.get(i));
+                }));
+        Mono<Void> oneByOne = Flux.fromIterable(claimed)
+                .concatMap(i -> persistAlone(i, bookings.get(i)).doOnNext(result -> results[i] = result))
+                .then();
+        return all.onErrorResume(batchFailure -> oneByOne)
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    private Mono<BookingResultDTO> persistAlone(int index, Booking booking) {
+        return store.insert(Collections.singletonList(booking))
+                .doOnSuccess(done -> bookingEngine.remember(booking))
+                .then(Mono.fromSupplier(() -> BookingResultDTO.booked(index, booking)))
+                .onErrorResume(e -> {
+                    if (e instanceof DataIntegrityViolationException) {
+                        return Mono.fromCallable(() -> {
+                                    bookingEngine.releaseRejected(booking);
+                                    return booked(index, booking);
+                                })
+                                .subscribeOn(Schedulers.boundedElastic());
+                    }
+                    bookingEngine.release(booking);
+                    return Mono.just(BookingResultDTO.failed(index, BookingResultDTO.Status.ERROR, "booking.failed",
+                            e.getMessage()));
+                });
+    }
+
+    /**
+     * The original booking should this one be a retry, otherwise the conflict. Like {@code BookingEngine.bookAll}.
+     */
+    private BookingResultDTO booked(int index, Booking booking) {
+        try {
+            return bookingEngine.findBooked(booking)
+                    .map(existing -> BookingResultDTO.booked(index, existing))
+                    .orElseGet(() -> BookingResultDTO.failed(index, BookingResultDTO.Status.CONFLICT, "room.booked",
+                            bookingEngine.conflict(booking).getMessage()));
+        } catch (InvalidBookingException e) {
+            return BookingResultDTO.failed(index, BookingResultDTO.Status.INVALID, e.getError().getCode(),
+                    e.getError().getReason());
+        }
+    }
+
+    /**
+     * The booking with its room, hotel and guests. Still read through JPA for the entity graph, off the event loop.
+     */
+    public Mono<ServerResponse> getBooking(ServerRequest request) {
+        Long id = HandlerSupport.pathId(request);
+        return Mono.fromCallable(() -> bookingRepository.findDetailById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(booking -> booking.isPresent()
+                        ? ServerResponse.ok().bodyValue(booking.get())
+                        : ServerResponse.notFound().build());
+    }
+
+    /**
+     * Every booked room after {@code after}, streamed straight from the result set with back pressure.
+     */
+    public Mono<ServerResponse> bookedRooms(ServerRequest request) {
+        long after = HandlerSupport.longParam(request, "after").orElse(0L);
+        long limit = HandlerSupport.longParam(request, "limit").map(l -> Math.max(0, l)).orElse(Long.MAX_VALUE);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(store.findBookedRoomsAfter(after, limit), BookedRoomDTO.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.demo.reactive;
+
+import com.demo.TimeProvider;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.RoomType;
+import com.demo.domain.User;
+import com.demo.dto.BookedRoomDTO;
+import com.demo.dto.RoomSummaryDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The R2DBC reads and writes of the reactive profile, against the tables the JPA entities map to.
+ *
+ * <p>Ids come straight from the entity sequences. Hibernate's pooled optimizer treats each sequence value as the top
+ * of a block of ids it has not handed out yet, so an id taken here is never one Hibernate will use.</p>
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveBookingStore {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final TimeProvider timeProvider;
+
+    public ReactiveBookingStore(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                                TimeProvider timeProvider) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * Inserts the bookings with their nights and guests in one transaction, assigning their ids.
+     * A night already in the ledger fails the whole transaction with a {@code DataIntegrityViolationException}.
+     */
+    public Mono<Void> insert(List<Booking> bookings) {
+        return Flux.fromIterable(bookings)
+                .concatMap(this::insertBooking)
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> insertBooking(Booking booking) {
+        Dates dates = booking.getDates();
+        LocalDateTime createdTime = timeProvider.localDateTime();
+        return nextValue("booking_seq").flatMap(id -> {
+            booking.setId(id);
+            booking.setCreatedTime(createdTime);
+            DatabaseClient.GenericExecuteSpec row = databaseClient.sql("insert into booking (id, reservation_id, " +
+                    "room_id, check_in_date, check_out_date, estimated_check_in_time, late_checkout, " +
+                    "policy_acknowledged, created_time, version) values (:id, :reservationId, :roomId, " +
+                    ":checkInDate, :checkOutDate, :estimatedCheckInTime, :lateCheckout, :policyAcknowledged, " +
+                    ":createdTime, 0)")
+                    .bind("id", id)
+                    .bind("reservationId", toBytes(booking.getReservationId()))
+                    .bind("roomId", booking.getRoom().getId())
+                    .bind("checkInDate", dates.getCheckInDate())
+                    .bind("checkOutDate", dates.getCheckOutDate())
+                    .bind("lateCheckout", dates.isLateCheckout())
+                    .bind("policyAcknowledged", dates.isPolicyAcknowledged())
+                    .bind("createdTime", createdTime);
+            // left for the not null constraint to reject, as the JPA insert would.
+            row = dates.getEstimatedCheckInTime() == null
+                    ? row.bindNull("estimatedCheckInTime", LocalTime.class)
+                    : row.bind("estimatedCheckInTime", dates.getEstimatedCheckInTime());
+            return row.then().then(insertNights(booking)).then(insertGuests(booking));
+        });
+    }
+
+    private Mono<Void> insertNights(Booking booking) {
+        Long roomId = booking.getRoom().getId();
+        LocalDate checkOut = booking.getDates().getCheckOutDate();
+        return Flux.fromStream(booking.getDates().getCheckInDate().datesUntil(checkOut))
+                .concatMap(night -> databaseClient.sql("insert into room_night (room_id, night, booking_id) " +
+                                "values (:roomId, :night, :bookingId)")
+                        .bind("roomId", roomId)
+                        .bind("night", night)
+                        .bind("bookingId", booking.getId())
+                        .then())
+                .then();
+    }
+
+    private Mono<Void> insertGuests(Booking booking) {
+        return Flux.fromIterable(booking.getGuests())
+                .concatMap(guest -> nextValue("hibernate_sequence").flatMap(guestId -> insertGuest(guestId, guest)
+                        .then(databaseClient.sql("insert into reservation_guests (reservation_id, guest_id) " +
+                                        "values (:bookingId, :guestId)")
+                                .bind("bookingId", booking.getId())
+                                .bind("guestId", guestId)
+                                .then())))
+                .then();
+    }
+
+    private Mono<Void> insertGuest(Long id, User guest) {
+        return databaseClient.sql("insert into app_user (id, first_name, last_name, child) " +
+                        "values (:id, :firstName, :lastName, :child)")
+                .bind("id", id)
+                .bind("firstName", guest.getFirstName())
+                .bind("lastName", guest.getLastName())
+                .bind("child", guest.isChild())
+                .then();
+    }
+
+    private Mono<Long> nextValue(String sequence) {
+        return databaseClient.sql("select next value for " + sequence)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Keyset page of rooms ordered by id, same as {@code RoomRepository.findSummariesAfter}.
+     */
+    public Flux<RoomSummaryDTO> findSummariesAfter(long afterId, int size) {
+        return databaseClient.sql("select id, hotel_id, room_number, room_type, beds, cost_per_night from room " +
+                        "where id > :afterId order by id limit :size")
+                .bind("afterId", afterId)
+                .bind("size", size)
+                .map(ReactiveBookingStore::roomSummary)
+                .all();
+    }
+
+    public Flux<RoomSummaryDTO> findSummariesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("select id, hotel_id, room_number, room_type, beds, cost_per_night from room " +
+                        "where id in (:ids) order by id")
+                .bind("ids", ids)
+                .map(ReactiveBookingStore::roomSummary)
+                .all();
+    }
+
+    /**
+     * Booked rooms in booking id order after {@code afterId}, same as {@code BookingRepository.findBookedRoomsAfter}.
+     * Rows are streamed as the subscriber requests them rather than read in pages.
+     */
+    public Flux<BookedRoomDTO> findBookedRoomsAfter(long afterId, long limit) {
+        return databaseClient.sql("select b.id, r.id as room_id, r.room_number, h.id as hotel_id, h.name, " +
+                        "b.check_in_date, b.check_out_date from booking b join room r on r.id = b.room_id " +
+                        "left join hotel h on h.id = r.hotel_id where b.id > :afterId order by b.id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(row -> new BookedRoomDTO(row.get("id", Long.class), row.get("room_id", Long.class),
+                        row.get("room_number", String.class), row.get("hotel_id", Long.class),
+                        row.get("name", String.class), row.get("check_in_date", LocalDate.class),
+                        row.get("check_out_date", LocalDate.class)))
+                .all();
+    }
+
+    private static RoomSummaryDTO roomSummary(Row row) {
+        Integer beds = row.get("beds", Integer.class);
+        return new RoomSummaryDTO(row.get("id", Long.class), row.get("hotel_id", Long.class),
+                row.get("room_number", String.class), RoomType.valueOf(row.get("room_type", String.class)),
+                beds == null ? 0 : beds, row.get("cost_per_night", BigDecimal.class));
+    }
+
+    // the same 16 bytes Hibernate writes for a UUID column.
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.reactive;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The reactive profile: {@code /booking} and the database backed {@code /users} endpoints served by WebFlux handlers
+ * that read and write with R2DBC, so a request never holds a thread while it waits on the database.
+ *
+ * <p>The annotated controllers are not loaded under this profile. The rest of {@code /users} and {@code /admin} are
+ * routed to handlers that run the controller methods on the bounded elastic scheduler, since they may still read or
+ * write through JPA. JPA keeps loading the catalog and the indexes on start up.</p>
+ *
+ * <p>The connection factory and its transaction manager are deliberately not beans. Spring Boot backs the JDBC
+ * {@code DataSource} off when it sees a {@code ConnectionFactory} bean, and {@code @Transactional} would no longer find
+ * a single transaction manager.</p>
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    private final ConnectionFactory connectionFactory;
+
+    public ReactiveConfig(@Value("${app.reactive.r2dbc-url}") String url) {
+        this.connectionFactory = ConnectionFactories.get(url);
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRoutes(ReactiveBookingHandler booking, ReactiveUserHandler user,
+                                                         ReactiveAdminHandler admin) {
+        return route()
+                .POST("/booking/createRoomBooking", booking::createRoomBooking)
+                .POST("/booking/bulk", booking::createBulkBooking)
+                .GET("/booking/rooms", booking::bookedRooms)
+                .GET("/booking/{id}", booking::getBooking)
+                .GET("/users/allRoom", user::allRooms)
+                .GET("/users/availableRooms", user::availableRooms)
+                .GET("/users/typeahead", user::typeahead)
+                .GET("/users/nearby", user::nearby)
+                .GET("/users/search", user::search)
+                .GET("/users/hotels", user::hotels)
+                .GET("/users/quote", user::quote)
+                .POST("/admin/createRoom", admin::createRoom)
+                .PUT("/admin/updateHotel/{id}", admin::updateHotel)
+                .PUT("/admin/{id}", admin::updateRoom)
+                .DELETE("/admin/deleteRoom/{id}", admin::deleteRoom)
+                .GET("/admin/getRoom/{id}", admin::getRoom)
+                .GET("/admin/all", admin::allRooms)
+                .POST("/admin/createHotel", admin::createHotel)
+                .GET("/admin/cacheStats", admin::cacheStats)
+                .GET("/admin/writeConflicts", admin::writeConflicts)
+                .build();
+    }
+}
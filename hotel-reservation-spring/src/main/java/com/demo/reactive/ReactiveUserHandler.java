@@ -0,0 +1,137 @@
+package com.demo.reactive;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.domain.Dates;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.State;
+import com.demo.dto.CursorPage;
+import com.demo.dto.RoomSummaryDTO;
+import com.demo.hotel.UserController;
+import com.demo.search.PriceBand;
+import com.demo.search.TypeaheadIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+import static com.demo.reactive.HandlerSupport.*;
+
+/**
+ * Reactive variant of the {@code UserController} endpoints.
+ *
+ * <p>The endpoints that read rooms from the database return {@link RoomSummaryDTO}s read with R2DBC rather than
+ * catalog entities. The rest are answered from the in memory indexes by the {@link UserController} methods, called
+ * off the event loop since a catalog cache miss still reads through JPA. The controller is built and autowired by
+ * the bean factory but not registered, so WebFlux does not map it to run on the event loop.</p>
+ */
+@Component
+@Profile("reactive")
+public class ReactiveUserHandler {
+
+    private final ReactiveBookingStore store;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final UserController users;
+
+    @Autowired
+    public ReactiveUserHandler(ReactiveBookingStore store, RoomAvailabilityIndex availabilityIndex,
+                               AutowireCapableBeanFactory beanFactory) {
+        this(store, availabilityIndex, beanFactory.createBean(UserController.class));
+    }
+
+    ReactiveUserHandler(ReactiveBookingStore store, RoomAvailabilityIndex availabilityIndex, UserController users) {
+        this.store = store;
+        this.availabilityIndex = availabilityIndex;
+        this.users = users;
+    }
+
+    public Mono<ServerResponse> allRooms(ServerRequest request) {
+        long after = longParam(request, "after").orElse(0L);
+        int size = CursorPage.clampSize(intParam(request, "size").orElse(CursorPage.DEFAULT_SIZE));
+        return store.findSummariesAfter(after, size)
+                .collectList()
+                .flatMap(rooms -> ServerResponse.ok().bodyValue(CursorPage.of(rooms, size, RoomSummaryDTO::getId)));
+    }
+
+    public Mono<ServerResponse> availableRooms(ServerRequest request) {
+        Optional<Long> hotelId = longParam(request, "hotelId");
+        LocalDate checkInDate;
+        LocalDate checkOutDate;
+        try {
+            checkInDate = request.queryParam("checkInDate").map(LocalDate::parse).orElse(null);
+            checkOutDate = request.queryParam("checkOutDate").map(LocalDate::parse).orElse(null);
+        } catch (DateTimeParseException e) {
+            return ServerResponse.badRequest().bodyValue(new Dates.ValidationError("dates.invalid",
+                    "Dates must be yyyy-mm-dd"));
+        }
+        if (!hotelId.isPresent()) {
+            return ServerResponse.badRequest().bodyValue(new Dates.ValidationError("hotelId.missing",
+                    "Missing hotel id"));
+        }
+        Optional<Dates.ValidationError> error = availabilityIndex.validateStay(checkInDate, checkOutDate);
+        if (error.isPresent()) {
+            return ServerResponse.badRequest().bodyValue(error.get());
+        }
+        List<Long> roomIds = availabilityIndex.availableRooms(hotelId.get(), checkInDate, checkOutDate);
+        return store.findSummariesByIdIn(roomIds)
+                .collectList()
+                .flatMap(rooms -> ServerResponse.ok().bodyValue(rooms));
+    }
+
+    public Mono<ServerResponse> typeahead(ServerRequest request) {
+        String q = requiredString(request, "q");
+        int limit = intParam(request, "limit").orElse(TypeaheadIndex.DEFAULT_LIMIT);
+        return offload(() -> users.typeahead(q, limit));
+    }
+
+    public Mono<ServerResponse> nearby(ServerRequest request) {
+        double latitude = requiredDouble(request, "latitude");
+        double longitude = requiredDouble(request, "longitude");
+        Double radiusKm = doubleParam(request, "radiusKm").orElse(null);
+        int limit = intParam(request, "limit").orElse(UserController.NEARBY_DEFAULT_LIMIT);
+        LocalDate checkInDate = dateParam(request, "checkInDate").orElse(null);
+        LocalDate checkOutDate = dateParam(request, "checkOutDate").orElse(null);
+        return offload(() -> users.nearby(latitude, longitude, radiusKm, limit, checkInDate, checkOutDate));
+    }
+
+    public Mono<ServerResponse> search(ServerRequest request) {
+        State state = enumParam(request, "state", State.class).orElse(null);
+        Integer stars = intParam(request, "stars").orElse(null);
+        RoomType roomType = enumParam(request, "roomType", RoomType.class).orElse(null);
+        PriceBand priceBand = enumParam(request, "priceBand", PriceBand.class).orElse(null);
+        String sort = string(request, "sort").orElse(null);
+        int limit = intParam(request, "limit").orElse(UserController.SEARCH_DEFAULT_LIMIT);
+        LocalDate checkInDate = dateParam(request, "checkInDate").orElse(null);
+        LocalDate checkOutDate = dateParam(request, "checkOutDate").orElse(null);
+        return offload(() -> users.search(state, stars, roomType, priceBand, sort, limit, checkInDate, checkOutDate));
+    }
+
+    public Mono<ServerResponse> hotels(ServerRequest request) {
+        String state = string(request, "state").orElse(null);
+        String suburb = string(request, "suburb").orElse(null);
+        String postcode = string(request, "postcode").orElse(null);
+        String sort = string(request, "sort").orElse("lowest");
+        int limit = intParam(request, "limit").orElse(UserController.SEARCH_DEFAULT_LIMIT);
+        LocalDate checkInDate = dateParam(request, "checkInDate").orElse(null);
+        LocalDate checkOutDate = dateParam(request, "checkOutDate").orElse(null);
+        return offload(() -> users.hotels(state, suburb, postcode, sort, limit, checkInDate, checkOutDate));
+    }
+
+    public Mono<ServerResponse> quote(ServerRequest request) {
+        Long hotelId = longParam(request, "hotelId").orElse(null);
+        String state = string(request, "state").orElse(null);
+        String suburb = string(request, "suburb").orElse(null);
+        String postcode = string(request, "postcode").orElse(null);
+        LocalDate checkInDate = requiredDate(request, "checkInDate");
+        LocalDate checkOutDate = requiredDate(request, "checkOutDate");
+        boolean lateCheckout = booleanParam(request, "lateCheckout").orElse(false);
+        return offload(() -> users.quote(hotelId, state, suburb, postcode, checkInDate, checkOutDate, lateCheckout));
+    }
+}
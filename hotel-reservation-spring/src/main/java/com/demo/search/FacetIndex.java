@@ -0,0 +1,261 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.State;
+import com.demo.persistance.RoomRepository;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Rooms grouped by hotel {@code State}, hotel stars, {@code RoomType} and {@link PriceBand} for faceted search.
+ *
+ * <p>Every combination of the four facets is a cell holding the ids of its rooms, so the count for a combination is
+ * the size of its cell and a search never groups rooms per request. The cells are moved incrementally as rooms and
+ * hotels are saved, see {@link HotelIndexLoader}.</p>
+ */
+@Component
+public class FacetIndex {
+
+    public static final int MAX_STARS = 5;
+
+    public static final String STATE = "state";
+    public static final String STARS = "stars";
+    public static final String ROOM_TYPE = "roomType";
+    public static final String PRICE_BAND = "priceBand";
+
+    private static final State[] STATES = State.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final PriceBand[] PRICE_BANDS = PriceBand.values();
+    private static final int STAR_VALUES = MAX_STARS + 1;
+
+    private final List<Set<Long>> cells = new ArrayList<>();
+
+    // only touched by writers, which are synchronized.
+    private final Map<Long, HotelFacets> hotels = new HashMap<>();
+    private final Map<Long, RoomFacets> rooms = new HashMap<>();
+
+    public FacetIndex() {
+        int count = STATES.length * STAR_VALUES * ROOM_TYPES.length * PRICE_BANDS.length;
+        for (int i = 0; i < count; i++) {
+            cells.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Replaces the whole index.
+     */
+    public synchronized void load(Collection<Hotel> allHotels, Collection<RoomRepository.RoomFacets> allRooms) {
+        hotels.clear();
+        rooms.clear();
+        cells.forEach(Set::clear);
+        allHotels.forEach(this::putHotel);
+        for (RoomRepository.RoomFacets room : allRooms) {
+            putRoom(room.getRoomId(), room.getHotelId(), room.getRoomType(), room.getCostPerNight());
+        }
+    }
+
+    /**
+     * Records a new hotel or moves the rooms of a hotel whose state or stars changed.
+     */
+    public synchronized void putHotel(Hotel hotel) {
+        HotelFacets facets = hotels.computeIfAbsent(hotel.getId(), id -> new HotelFacets());
+        facets.state = hotel.getAddress() == null ? null : hotel.getAddress().getState();
+        facets.stars = Math.max(0, Math.min(MAX_STARS, hotel.getStars()));
+        for (Long roomId : facets.roomIds) {
+            place(roomId, rooms.get(roomId));
+        }
+    }
+
+    /**
+     * Adds a new room or moves a changed one. Rooms of hotels that are not known yet are held back until the hotel
+     * is put.
+     */
+    public synchronized void putRoom(Long roomId, Long hotelId, RoomType roomType, BigDecimal costPerNight) {
+        removeRoom(roomId);
+        if (hotelId == null || roomType == null || costPerNight == null) {
+            return;
+        }
+        RoomFacets room = new RoomFacets(hotelId, roomType, PriceBand.of(costPerNight));
+        rooms.put(roomId, room);
+        hotels.computeIfAbsent(hotelId, id -> new HotelFacets()).roomIds.add(roomId);
+        place(roomId, room);
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        RoomFacets room = rooms.remove(roomId);
+        if (room == null) {
+            return;
+        }
+        if (room.cell >= 0) {
+            cells.get(room.cell).remove(roomId);
+        }
+        HotelFacets hotel = hotels.get(room.hotelId);
+        if (hotel != null) {
+            hotel.roomIds.remove(roomId);
+        }
+    }
+
+    private void place(Long roomId, RoomFacets room) {
+        if (room.cell >= 0) {
+            cells.get(room.cell).remove(roomId);
+        }
+        HotelFacets hotel = hotels.get(room.hotelId);
+        if (hotel.state == null) {
+            room.cell = -1;
+            return;
+        }
+        room.cell = cell(hotel.state.ordinal(), hotel.stars, room.roomType.ordinal(), room.priceBand.ordinal());
+        cells.get(room.cell).add(roomId);
+    }
+
+    private static int cell(int state, int stars, int roomType, int priceBand) {
+        return ((state * STAR_VALUES + stars) * ROOM_TYPES.length + roomType) * PRICE_BANDS.length + priceBand;
+    }
+
+    /**
+     * Finds the rooms matching every supplied filter, {@code null} filters match anything.
+     *
+     * @param available only rooms it accepts are returned or counted, eg those free for a stay. {@code null} for all
+     *                  rooms, in which case the counts are read straight from the cells.
+     * @param limit     the number of room ids returned, the total and counts cover every match.
+     */
+    public Result search(State state, Integer stars, RoomType roomType, PriceBand priceBand,
+                         LongPredicate available, int limit) {
+        int[] wanted = {
+                state == null ? -1 : state.ordinal(),
+                stars == null ? -1 : stars,
+                roomType == null ? -1 : roomType.ordinal(),
+                priceBand == null ? -1 : priceBand.ordinal()
+        };
+        int[][] counts = {
+                new int[STATES.length], new int[STAR_VALUES], new int[ROOM_TYPES.length], new int[PRICE_BANDS.length]
+        };
+        int[] values = new int[4];
+        List<Long> roomIds = new ArrayList<>();
+        int total = 0;
+
+        for (values[0] = 0; values[0] < STATES.length; values[0]++) {
+            for (values[1] = 0; values[1] < STAR_VALUES; values[1]++) {
+                for (values[2] = 0; values[2] < ROOM_TYPES.length; values[2]++) {
+                    for (values[3] = 0; values[3] < PRICE_BANDS.length; values[3]++) {
+                        // a cell matching all filters but one only counts towards the facet it doesn't match.
+                        int mismatches = 0;
+                        int mismatched = -1;
+                        for (int facet = 0; facet < 4; facet++) {
+                            if (wanted[facet] >= 0 && wanted[facet] != values[facet]) {
+                                mismatches++;
+                                mismatched = facet;
+                            }
+                        }
+                        if (mismatches > 1) {
+                            continue;
+                        }
+                        Set<Long> cell = cells.get(cell(values[0], values[1], values[2], values[3]));
+                        if (cell.isEmpty()) {
+                            continue;
+                        }
+                        int count = count(cell, available, mismatches == 0 ? roomIds : null, limit);
+                        if (mismatches == 0) {
+                            total += count;
+                            for (int facet = 0; facet < 4; facet++) {
+                                counts[facet][values[facet]] += count;
+                            }
+                        } else {
+                            counts[mismatched][values[mismatched]] += count;
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put(STATE, facet(counts[0], i -> STATES[i].name()));
+        facets.put(STARS, facet(counts[1], String::valueOf));
+        facets.put(ROOM_TYPE, facet(counts[2], i -> ROOM_TYPES[i].name()));
+        facets.put(PRICE_BAND, facet(counts[3], i -> PRICE_BANDS[i].name()));
+        return new Result(roomIds, total, facets);
+    }
+
+    private static int count(Set<Long> cell, LongPredicate available, List<Long> matches, int limit) {
+        if (available == null && (matches == null || matches.size() >= limit)) {
+            return cell.size();
+        }
+        int count = 0;
+        for (Long roomId : cell) {
+            if (available == null || available.test(roomId)) {
+                count++;
+                if (matches != null && matches.size() < limit) {
+                    matches.add(roomId);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, Integer> facet(int[] counts, IntFunction<String> name) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facet.put(name.apply(i), counts[i]);
+            }
+        }
+        return facet;
+    }
+
+    private static final class HotelFacets {
+        State state;
+        int stars;
+        final Set<Long> roomIds = new HashSet<>();
+    }
+
+    private static final class RoomFacets {
+        final Long hotelId;
+        final RoomType roomType;
+        final PriceBand priceBand;
+        int cell = -1;
+
+        RoomFacets(Long hotelId, RoomType roomType, PriceBand priceBand) {
+            this.hotelId = hotelId;
+            this.roomType = roomType;
+            this.priceBand = priceBand;
+        }
+    }
+
+    public static final class Result {
+        private final List<Long> roomIds;
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Result(List<Long> roomIds, int total, Map<String, Map<String, Integer>> facets) {
+            this.roomIds = roomIds;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getRoomIds() {
+            return roomIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.dto.NearbyHotelDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongPredicate;
+
+/**
+ * In memory grid of hotel coordinates for proximity searches.
+ *
+ * <p>The globe is cut into {@link #CELL_DEGREES} square cells, roughly 11km high. A radius search only visits the
+ * cells overlapping the circle's bounding box and measures the great circle distance to the hotels in them, so its
+ * cost depends on how many hotels are nearby rather than on the total.</p>
+ *
+ * <p>Hotels without coordinates are not indexed. See {@link HotelIndexLoader} for how the index is kept
+ * current.</p>
+ */
+@Component
+public class GeoGridIndex {
+
+    public static final double CELL_DEGREES = 0.1;
+
+    /**
+     * Upper bound on the radius of a search, a little over half the earth's circumference.
+     */
+    public static final double MAX_RADIUS_KM = 20_050;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+    private final ConcurrentMap<Long, Point> hotels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<Point>> cells = new ConcurrentHashMap<>();
+
+    public synchronized void load(Collection<Hotel> all) {
+        hotels.clear();
+        cells.clear();
+        all.forEach(this::put);
+    }
+
+    /**
+     * Adds a new hotel or moves a changed one. A hotel that no longer has coordinates is removed.
+     */
+    public synchronized void put(Hotel hotel) {
+        remove(hotel.getId());
+        Address address = hotel.getAddress();
+        if (address == null || !address.hasCoordinates()) {
+            return;
+        }
+        Point point = new Point(hotel.getId(), hotel.getName(), address.getLatitude(), address.getLongitude());
+        hotels.put(point.hotelId, point);
+        cells.computeIfAbsent(cell(row(point.latitude), column(point.longitude)),
+                cell -> ConcurrentHashMap.newKeySet()).add(point);
+    }
+
+    public synchronized void remove(Long hotelId) {
+        Point point = hotels.remove(hotelId);
+        if (point != null) {
+            cells.getOrDefault(cell(row(point.latitude), column(point.longitude)), Collections.emptySet())
+                    .remove(point);
+        }
+    }
+
+    public int size() {
+        return hotels.size();
+    }
+
+    /**
+     * @param filter only hotels whose id it accepts are returned, eg those with a free room
+     * @return Up to {@code limit} hotels within {@code radiusKm}, nearest first.
+     */
+    public List<NearbyHotelDTO> withinRadius(double latitude, double longitude, double radiusKm, int limit,
+                                     LongPredicate filter) {
+        double radius = Math.min(radiusKm, MAX_RADIUS_KM);
+        List<NearbyHotelDTO> found = new ArrayList<>();
+        if (limit < 1 || radius <= 0) {
+            return found;
+        }
+
+        double latitudeDelta = radius / KM_PER_DEGREE;
+        int fromRow = row(Math.max(-90, latitude - latitudeDelta));
+        int toRow = row(Math.min(90, latitude + latitudeDelta));
+        // meridians converge towards the poles so the box widens with the latitude furthest from the equator.
+        double widest = Math.min(89.9, Math.abs(latitude) + latitudeDelta);
+        double longitudeDelta = radius / (KM_PER_DEGREE * Math.cos(Math.toRadians(widest)));
+        int columnSpan = longitudeDelta >= 180 ? COLUMNS : (int) Math.ceil(longitudeDelta / CELL_DEGREES) + 1;
+        int centreColumn = column(longitude);
+
+        int fromOffset = -Math.min(columnSpan, COLUMNS / 2);
+        int toOffset = Math.min(columnSpan, COLUMNS / 2 - 1);
+
+        if ((long) (toRow - fromRow + 1) * (toOffset - fromOffset + 1) > cells.size()) {
+            // a wide search over a sparse grid, cheaper to check every occupied cell.
+            for (Set<Point> points : cells.values()) {
+                collect(points, latitude, longitude, radius, filter, found);
+            }
+        } else {
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int offset = fromOffset; offset <= toOffset; offset++) {
+                    // wraps around the antimeridian.
+                    int column = Math.floorMod(centreColumn + offset, COLUMNS);
+                    collect(cells.get(cell(row, column)), latitude, longitude, radius, filter, found);
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(NearbyHotelDTO::getDistanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private static void collect(Set<Point> points, double latitude, double longitude, double radius,
+                                LongPredicate filter, List<NearbyHotelDTO> found) {
+        if (points == null) {
+            return;
+        }
+        for (Point point : points) {
+            double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+            if (distance <= radius && filter.test(point.hotelId)) {
+                found.add(new NearbyHotelDTO(point.hotelId, point.name, distance));
+            }
+        }
+    }
+
+    /**
+     * @return The {@code count} hotels nearest to the point, nearest first. Searches widening circles until enough
+     * hotels are found.
+     */
+    public List<NearbyHotelDTO> nearest(double latitude, double longitude, int count, LongPredicate filter) {
+        double radius = 5;
+        while (true) {
+            List<NearbyHotelDTO> found = withinRadius(latitude, longitude, radius, count, filter);
+            if (found.size() >= count || radius >= MAX_RADIUS_KM) {
+                return found;
+            }
+            radius *= 4;
+        }
+    }
+
+    /**
+     * Haversine distance.
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static int cell(int row, int column) {
+        return row * COLUMNS + column;
+    }
+
+    private static final class Point {
+        final Long hotelId;
+        final String name;
+        final double latitude;
+        final double longitude;
+
+        Point(Long hotelId, String name, double latitude, double longitude) {
+            this.hotelId = hotelId;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.demo.search;
+
+import com.demo.catalog.HotelSavedEvent;
+import com.demo.catalog.RoomDeletedEvent;
+import com.demo.catalog.RoomSavedEvent;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.persistance.HotelRepository;
+import com.demo.persistance.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the in memory hotel search indexes from every hotel and room once the application has started and keeps
+ * them current as hotels and rooms are saved.
+ */
+@Component
+public class HotelIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger("HotelIndexLoader");
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final TypeaheadIndex typeaheadIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final FacetIndex facetIndex;
+    private final SortedRoomIndex sortedRoomIndex;
+
+    public HotelIndexLoader(HotelRepository hotelRepository, RoomRepository roomRepository,
+                            TypeaheadIndex typeaheadIndex, GeoGridIndex geoGridIndex, FacetIndex facetIndex,
+                            SortedRoomIndex sortedRoomIndex) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.typeaheadIndex = typeaheadIndex;
+        this.geoGridIndex = geoGridIndex;
+        this.facetIndex = facetIndex;
+        this.sortedRoomIndex = sortedRoomIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<Hotel> hotels = new ArrayList<>();
+        hotelRepository.findAll().forEach(hotels::add);
+        typeaheadIndex.load(hotels);
+        geoGridIndex.load(hotels);
+        List<RoomRepository.RoomFacets> rooms = roomRepository.findAllRoomFacets();
+        facetIndex.load(hotels, rooms);
+        sortedRoomIndex.load(hotels, rooms);
+        log.info("Hotel search indexes loaded for {} hotels, {} with coordinates, and {} rooms", hotels.size(),
+                geoGridIndex.size(), rooms.size());
+    }
+
+    /**
+     * Runs once the change is committed, or straight away when the hotel was saved outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void hotelSaved(HotelSavedEvent event) {
+        typeaheadIndex.put(event.getHotel());
+        geoGridIndex.put(event.getHotel());
+        facetIndex.putHotel(event.getHotel());
+        sortedRoomIndex.putHotel(event.getHotel());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void roomSaved(RoomSavedEvent event) {
+        Room room = event.getRoom();
+        Long hotelId = room.getHotel() == null ? null : room.getHotel().getId();
+        facetIndex.putRoom(room.getId(), hotelId, room.getRoomType(), room.getCostPerNight());
+        sortedRoomIndex.putRoom(room.getId(), hotelId, room.getRoomNumber(), room.getRoomType(),
+                room.getCostPerNight());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void roomDeleted(RoomDeletedEvent event) {
+        facetIndex.removeRoom(event.getRoomId());
+        sortedRoomIndex.removeRoom(event.getRoomId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.demo.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Cost per night ranges used to facet room searches, each band includes its lower bound.
+ */
+public enum PriceBand {
+    UNDER_100(0), FROM_100(100), FROM_200(200), FROM_300(300), FROM_500(500);
+
+    private final BigDecimal from;
+
+    PriceBand(int from) {
+        this.from = BigDecimal.valueOf(from);
+    }
+
+    public BigDecimal getFrom() {
+        return from;
+    }
+
+    public static PriceBand of(BigDecimal costPerNight) {
+        PriceBand[] bands = values();
+        for (int i = bands.length - 1; i > 0; i--) {
+            if (costPerNight.compareTo(bands[i].from) >= 0) {
+                return bands[i];
+            }
+        }
+        return bands[0];
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.search;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Orders room and hotel searches can be sorted by, see {@link SortedRoomIndex}.
+ */
+public enum SortOrder {
+    /**
+     * Cheapest room first.
+     */
+    LOWEST,
+    /**
+     * Most expensive room first.
+     */
+    HIGHEST,
+    /**
+     * Hotel name then room number.
+     */
+    NAME,
+    /**
+     * Most stars first, then cheapest room first.
+     */
+    STARS;
+
+    /**
+     * @return The order with the given name ignoring case, eg {@code "lowest"}, empty if there is none.
+     */
+    public static Optional<SortOrder> of(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.State;
+import com.demo.persistance.RoomRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Rooms held pre-sorted by price, by hotel name and by hotel stars so sorted searches never sort per request.
+ *
+ * <p>A search walks the rooms in the requested order and stops once it has {@code limit} rooms that pass the filters,
+ * so finding the cheapest free room in a suburb reads the cheap end of the order rather than every room in the
+ * suburb. Hotels are sorted by their first room in the order, eg their cheapest room for {@link SortOrder#LOWEST}.</p>
+ *
+ * <p>Besides the orders over every room, each state, suburb, postcode, star rating, room type and price band keeps
+ * its own. A search walks the smallest of those its {@link Filter} names, so a suburb search never reads the rooms
+ * of other suburbs however few of its own rooms are free.</p>
+ *
+ * <p>Each order is a skip list that readers iterate without blocking. Writers re-insert the entries of changed rooms
+ * and hotels, see {@link HotelIndexLoader}. Bookings do not change the order, availability is checked while
+ * walking.</p>
+ */
+@Component
+public class SortedRoomIndex {
+
+    private static final Comparator<Entry> BY_PRICE = Comparator.comparing(Entry::getCostPerNight)
+            .thenComparing(Entry::getRoomId);
+
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::getHotelName,
+            String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Entry::getHotelId)
+            .thenComparing(Entry::getRoomNumber)
+            .thenComparing(Entry::getRoomId);
+
+    private static final Comparator<Entry> BY_STARS = Comparator.comparing(Entry::getStars, Comparator.reverseOrder())
+            .thenComparing(BY_PRICE);
+
+    private final Orders all = new Orders();
+    private final ConcurrentMap<String, Orders> partitions = new ConcurrentHashMap<>();
+
+    // only touched by writers, which are synchronized.
+    private final Map<Long, Hotel> hotels = new HashMap<>();
+    private final Map<Long, RoomRow> rooms = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<Long>> roomsByHotel = new HashMap<>();
+
+    /**
+     * Replaces the whole index.
+     */
+    public synchronized void load(Collection<Hotel> allHotels, Collection<RoomRepository.RoomFacets> allRooms) {
+        hotels.clear();
+        rooms.clear();
+        entries.clear();
+        roomsByHotel.clear();
+        all.clear();
+        partitions.clear();
+        allHotels.forEach(this::putHotel);
+        for (RoomRepository.RoomFacets room : allRooms) {
+            putRoom(room.getRoomId(), room.getHotelId(), room.getRoomNumber(), room.getRoomType(),
+                    room.getCostPerNight());
+        }
+    }
+
+    /**
+     * Records a new hotel or re-sorts the rooms of a changed one.
+     */
+    public synchronized void putHotel(Hotel hotel) {
+        hotels.put(hotel.getId(), hotel);
+        for (Long roomId : roomsByHotel.getOrDefault(hotel.getId(), new HashSet<>())) {
+            place(rooms.get(roomId));
+        }
+    }
+
+    /**
+     * Adds a new room or re-sorts a changed one. Rooms of hotels that are not known yet are held back until the
+     * hotel is put.
+     */
+    public synchronized void putRoom(Long roomId, Long hotelId, String roomNumber, RoomType roomType,
+                                     BigDecimal costPerNight) {
+        removeRoom(roomId);
+        if (hotelId == null || costPerNight == null) {
+            return;
+        }
+        RoomRow room = new RoomRow(roomId, hotelId, roomNumber, roomType, costPerNight);
+        rooms.put(roomId, room);
+        roomsByHotel.computeIfAbsent(hotelId, id -> new HashSet<>()).add(roomId);
+        place(room);
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        RoomRow room = rooms.remove(roomId);
+        if (room == null) {
+            return;
+        }
+        unplace(roomId);
+        Set<Long> hotelRooms = roomsByHotel.get(room.hotelId);
+        if (hotelRooms != null) {
+            hotelRooms.remove(roomId);
+        }
+    }
+
+    private void place(RoomRow room) {
+        unplace(room.roomId);
+        Hotel hotel = hotels.get(room.hotelId);
+        if (hotel == null) {
+            return;
+        }
+        Entry entry = new Entry(room, hotel);
+        entries.put(entry.roomId, entry);
+        all.add(entry);
+        for (String key : entry.partitions) {
+            partitions.computeIfAbsent(key, k -> new Orders()).add(entry);
+        }
+    }
+
+    private void unplace(Long roomId) {
+        Entry entry = entries.remove(roomId);
+        if (entry != null) {
+            all.remove(entry);
+            for (String key : entry.partitions) {
+                Orders orders = partitions.get(key);
+                if (orders != null) {
+                    orders.remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param filter    rooms that may be returned, eg {@link #location(String, String, String)}.
+     * @param available only rooms it accepts are returned, eg those free for a stay. {@code null} for all rooms.
+     * @return The ids of the first {@code limit} matching rooms in the order.
+     */
+    public List<Long> rooms(SortOrder order, Filter filter, LongPredicate available, int limit) {
+        List<Long> roomIds = new ArrayList<>();
+        Iterator<Entry> it = iterator(order, filter);
+        while (roomIds.size() < limit && it.hasNext()) {
+            Entry entry = it.next();
+            if (filter.test(entry) && (available == null || available.test(entry.roomId))) {
+                roomIds.add(entry.roomId);
+            }
+        }
+        return roomIds;
+    }
+
+    /**
+     * Same as {@link #rooms} but each hotel is only returned once, at the position of its first matching room.
+     *
+     * @return The ids of the first {@code limit} hotels in the order.
+     */
+    public List<Long> hotels(SortOrder order, Filter filter, LongPredicate available, int limit) {
+        Set<Long> hotelIds = new LinkedHashSet<>();
+        Iterator<Entry> it = iterator(order, filter);
+        while (hotelIds.size() < limit && it.hasNext()) {
+            Entry entry = it.next();
+            if (!hotelIds.contains(entry.hotelId) && filter.test(entry)
+                    && (available == null || available.test(entry.roomId))) {
+                hotelIds.add(entry.hotelId);
+            }
+        }
+        return new ArrayList<>(hotelIds);
+    }
+
+    /**
+     * The order over the fewest rooms among those the filter is limited to, empty if one of them has no rooms.
+     */
+    private Iterator<Entry> iterator(SortOrder order, Filter filter) {
+        Orders narrowest = all;
+        for (String key : filter.partitions) {
+            Orders orders = partitions.get(key);
+            if (orders == null) {
+                return Collections.emptyIterator();
+            }
+            if (orders.size < narrowest.size) {
+                narrowest = orders;
+            }
+        }
+        return narrowest.iterator(order);
+    }
+
+    /**
+     * Every room.
+     */
+    public static Filter any() {
+        return Filter.ANY;
+    }
+
+    /**
+     * Rooms in hotels matching every supplied location part, {@code null} parts match anything. Same rules as
+     * {@code HotelPredicates.byLocation}.
+     */
+    public static Filter location(String state, String suburb, String postcode) {
+        List<String> keys = new ArrayList<>();
+        Predicate<Entry> predicate = entry -> true;
+        if (state != null) {
+            String key = stateKey(state.trim());
+            keys.add(key);
+            predicate = predicate.and(entry -> entry.partitions.contains(key));
+        }
+        if (suburb != null) {
+            String key = suburbKey(Address.suburbKey(suburb));
+            keys.add(key);
+            predicate = predicate.and(entry -> entry.partitions.contains(key));
+        }
+        if (postcode != null) {
+            String key = postcodeKey(postcode.trim());
+            keys.add(key);
+            predicate = predicate.and(entry -> entry.partitions.contains(key));
+        }
+        return new Filter(keys, predicate);
+    }
+
+    /**
+     * Rooms matching every supplied facet, {@code null} facets match anything.
+     */
+    public static Filter facets(State state, Integer stars, RoomType roomType, PriceBand priceBand) {
+        List<String> keys = new ArrayList<>();
+        if (state != null) {
+            keys.add(stateKey(state.name()));
+        }
+        if (stars != null) {
+            keys.add(starsKey(stars));
+        }
+        if (roomType != null) {
+            keys.add(roomTypeKey(roomType));
+        }
+        if (priceBand != null) {
+            keys.add(priceBandKey(priceBand));
+        }
+        return new Filter(keys, entry -> (state == null || state == entry.state)
+                && (stars == null || stars == entry.stars)
+                && (roomType == null || roomType == entry.roomType)
+                && (priceBand == null || priceBand == entry.priceBand));
+    }
+
+    private static String stateKey(String state) {
+        return "state:" + state.toUpperCase(Locale.ROOT);
+    }
+
+    private static String suburbKey(String suburbKey) {
+        return "suburb:" + suburbKey;
+    }
+
+    private static String postcodeKey(String postcode) {
+        return "postcode:" + postcode;
+    }
+
+    private static String starsKey(int stars) {
+        return "stars:" + stars;
+    }
+
+    private static String roomTypeKey(RoomType roomType) {
+        return "roomType:" + roomType.name();
+    }
+
+    private static String priceBandKey(PriceBand priceBand) {
+        return "priceBand:" + priceBand.name();
+    }
+
+    /**
+     * Which rooms a search may return. Names the partitions every match is in, so the search only walks the
+     * smallest of them.
+     */
+    public static final class Filter implements Predicate<Entry> {
+        private static final Filter ANY = new Filter(Collections.emptyList(), entry -> true);
+
+        private final List<String> partitions;
+        private final Predicate<Entry> predicate;
+
+        private Filter(List<String> partitions, Predicate<Entry> predicate) {
+            this.partitions = partitions;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(Entry entry) {
+            return predicate.test(entry);
+        }
+    }
+
+    /**
+     * The three orders over one set of rooms.
+     */
+    private static final class Orders {
+        private final NavigableSet<Entry> byPrice = new ConcurrentSkipListSet<>(BY_PRICE);
+        private final NavigableSet<Entry> byName = new ConcurrentSkipListSet<>(BY_NAME);
+        private final NavigableSet<Entry> byStars = new ConcurrentSkipListSet<>(BY_STARS);
+
+        // the skip lists count by walking, writers keep the size for readers choosing between partitions.
+        private volatile int size;
+
+        void add(Entry entry) {
+            if (byPrice.add(entry)) {
+                byName.add(entry);
+                byStars.add(entry);
+                size++;
+            }
+        }
+
+        void remove(Entry entry) {
+            if (byPrice.remove(entry)) {
+                byName.remove(entry);
+                byStars.remove(entry);
+                size--;
+            }
+        }
+
+        void clear() {
+            byPrice.clear();
+            byName.clear();
+            byStars.clear();
+            size = 0;
+        }
+
+        Iterator<Entry> iterator(SortOrder order) {
+            switch (order) {
+                case HIGHEST:
+                    return byPrice.descendingIterator();
+                case NAME:
+                    return byName.iterator();
+                case STARS:
+                    return byStars.iterator();
+                default:
+                    return byPrice.iterator();
+            }
+        }
+    }
+
+    private static final class RoomRow {
+        final Long roomId;
+        final Long hotelId;
+        final String roomNumber;
+        final RoomType roomType;
+        final BigDecimal costPerNight;
+
+        RoomRow(Long roomId, Long hotelId, String roomNumber, RoomType roomType, BigDecimal costPerNight) {
+            this.roomId = roomId;
+            this.hotelId = hotelId;
+            this.roomNumber = roomNumber;
+            this.roomType = roomType;
+            this.costPerNight = costPerNight;
+        }
+    }
+
+    /**
+     * A room with the hotel details it is sorted and filtered on. Immutable, a change replaces the entry.
+     */
+    public static final class Entry {
+        private final Long roomId;
+        private final String roomNumber;
+        private final RoomType roomType;
+        private final BigDecimal costPerNight;
+        private final PriceBand priceBand;
+        private final Long hotelId;
+        private final String hotelName;
+        private final int stars;
+        private final State state;
+        private final Set<String> partitions = new HashSet<>();
+
+        Entry(RoomRow room, Hotel hotel) {
+            Address address = hotel.getAddress();
+            this.roomId = room.roomId;
+            this.roomNumber = room.roomNumber == null ? "" : room.roomNumber;
+            this.roomType = room.roomType;
+            this.costPerNight = room.costPerNight;
+            this.priceBand = PriceBand.of(costPerNight);
+            this.hotelId = hotel.getId();
+            this.hotelName = hotel.getName() == null ? "" : hotel.getName();
+            this.stars = hotel.getStars();
+            this.state = address == null ? null : address.getState();
+            if (state != null) {
+                partitions.add(stateKey(state.name()));
+            }
+            if (address != null && address.getSuburb() != null) {
+                partitions.add(suburbKey(Address.suburbKey(address.getSuburb())));
+            }
+            if (address != null && address.getPostcode() != null) {
+                partitions.add(postcodeKey(address.getPostcode().getValue()));
+            }
+            partitions.add(starsKey(stars));
+            if (roomType != null) {
+                partitions.add(roomTypeKey(roomType));
+            }
+            if (priceBand != null) {
+                partitions.add(priceBandKey(priceBand));
+            }
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public String getRoomNumber() {
+            return roomNumber;
+        }
+
+        public RoomType getRoomType() {
+            return roomType;
+        }
+
+        public BigDecimal getCostPerNight() {
+            return costPerNight;
+        }
+
+        public Long getHotelId() {
+            return hotelId;
+        }
+
+        public String getHotelName() {
+            return hotelName;
+        }
+
+        public int getStars() {
+            return stars;
+        }
+    }
+}
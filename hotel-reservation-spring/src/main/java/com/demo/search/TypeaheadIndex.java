@@ -0,0 +1,190 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.State;
+import com.demo.dto.TypeaheadDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In memory prefix index over hotel names, suburbs and postcodes for autocomplete.
+ *
+ * <p>Every word of a suggestion is a key, so {@code "ryde"} finds {@code North Ryde}. Keys are held in one sorted
+ * array: a lookup is a binary search for the first key with the prefix followed by reading the next {@code limit}
+ * keys, so suggestions come back in key order regardless of how many hotels there are.</p>
+ *
+ * <p>Readers use an immutable snapshot and never block. A write rebuilds the snapshot, which is fine for hotels
+ * since they change rarely. See {@link HotelIndexLoader} for how the index is kept current.</p>
+ */
+@Component
+public class TypeaheadIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final Map<Long, HotelTerms> hotels = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    /**
+     * Replaces the whole index.
+     */
+    public synchronized void load(Collection<Hotel> all) {
+        hotels.clear();
+        for (Hotel hotel : all) {
+            hotels.put(hotel.getId(), new HotelTerms(hotel));
+        }
+        snapshot = new Snapshot(hotels.values());
+    }
+
+    /**
+     * Adds a new hotel or replaces the terms of a changed one.
+     */
+    public synchronized void put(Hotel hotel) {
+        hotels.put(hotel.getId(), new HotelTerms(hotel));
+        snapshot = new Snapshot(hotels.values());
+    }
+
+    public synchronized void remove(Long hotelId) {
+        if (hotels.remove(hotelId) != null) {
+            snapshot = new Snapshot(hotels.values());
+        }
+    }
+
+    /**
+     * @return Up to {@code limit} suggestions with a word starting with {@code prefix}, ignoring case.
+     */
+    public List<TypeaheadDTO> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null || key.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        return snapshot.search(key, Math.min(limit, MAX_LIMIT));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static final class HotelTerms {
+        final Long id;
+        final String name;
+        final String suburb;
+        final State state;
+        final String postcode;
+
+        HotelTerms(Hotel hotel) {
+            Address address = hotel.getAddress();
+            this.id = hotel.getId();
+            this.name = hotel.getName();
+            this.suburb = address.getSuburb();
+            this.state = address.getState();
+            this.postcode = address.getPostcode() == null ? null : address.getPostcode().getValue();
+        }
+    }
+
+    private static final class Snapshot {
+        private final String[] keys;
+        private final TypeaheadDTO[] suggestions;
+
+        Snapshot(Collection<HotelTerms> hotels) {
+            Map<String, List<HotelTerms>> suburbs = new LinkedHashMap<>();
+            Map<String, List<HotelTerms>> postcodes = new LinkedHashMap<>();
+            List<Term> terms = new ArrayList<>();
+            for (HotelTerms hotel : hotels) {
+                addTerms(terms, new TypeaheadDTO(TypeaheadDTO.Type.HOTEL, hotel.name, hotel.state, hotel.id, 1));
+                if (hotel.suburb != null) {
+                    suburbs.computeIfAbsent(normalize(hotel.suburb) + '|' + hotel.state, k -> new ArrayList<>())
+                            .add(hotel);
+                }
+                if (hotel.postcode != null) {
+                    postcodes.computeIfAbsent(hotel.postcode, k -> new ArrayList<>()).add(hotel);
+                }
+            }
+            for (List<HotelTerms> suburb : suburbs.values()) {
+                HotelTerms first = suburb.get(0);
+                addTerms(terms, new TypeaheadDTO(TypeaheadDTO.Type.SUBURB, first.suburb, first.state, null,
+                        suburb.size()));
+            }
+            for (List<HotelTerms> postcode : postcodes.values()) {
+                HotelTerms first = postcode.get(0);
+                addTerms(terms, new TypeaheadDTO(TypeaheadDTO.Type.POSTCODE, first.postcode, first.state, null,
+                        postcode.size()));
+            }
+
+            // places before hotels for the same key, then the busiest place first.
+            terms.sort(Comparator.comparing((Term t) -> t.key)
+                    .thenComparing(t -> t.suggestion.getType() == TypeaheadDTO.Type.HOTEL)
+                    .thenComparing(t -> -t.suggestion.getHotels())
+                    .thenComparing(t -> t.suggestion.getLabel()));
+            keys = new String[terms.size()];
+            suggestions = new TypeaheadDTO[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                keys[i] = terms.get(i).key;
+                suggestions[i] = terms.get(i).suggestion;
+            }
+        }
+
+        private static void addTerms(List<Term> terms, TypeaheadDTO suggestion) {
+            String label = normalize(suggestion.getLabel());
+            if (label == null || label.isEmpty()) {
+                return;
+            }
+            terms.add(new Term(label, suggestion));
+            for (int i = label.indexOf(' '); i >= 0; i = label.indexOf(' ', i + 1)) {
+                terms.add(new Term(label.substring(i + 1), suggestion));
+            }
+        }
+
+        List<TypeaheadDTO> search(String prefix, int limit) {
+            List<TypeaheadDTO> found = new ArrayList<>(limit);
+            for (int i = firstAtLeast(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                // a suggestion with several words starting with the prefix has a key for each.
+                if (!found.contains(suggestions[i])) {
+                    found.add(suggestions[i]);
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private int firstAtLeast(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Term {
+        final String key;
+        final TypeaheadDTO suggestion;
+
+        Term(String key, TypeaheadDTO suggestion) {
+            this.key = key;
+            this.suggestion = suggestion;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.availability;
+
+import com.demo.TimeProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RoomAvailabilityIndexTest {
+
+    private LocalDate today = LocalDate.of(2020, 1, 1);
+
+    private RoomAvailabilityIndex index;
+
+    @Before
+    public void setUp() {
+        index = new RoomAvailabilityIndex(new TimeProvider() {
+            @Override
+            public LocalDate localDate() {
+                return today;
+            }
+        });
+        index.registerRoom(1L, 10L);
+        index.registerRoom(1L, 11L);
+        index.registerRoom(2L, 20L);
+    }
+
+    @Test
+    public void availableRooms_NoBookings_AllRoomsInHotel() {
+        assertThat(index.availableRooms(1L, today, today.plusDays(3))).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(index.availableRooms(2L, today, today.plusDays(3))).containsExactly(20L);
+        assertThat(index.availableRooms(3L, today, today.plusDays(3))).isEmpty();
+    }
+
+    /**
+     * Check out night is not occupied so a stay can start on the same day another ends.
+     */
+    @Test
+    public void isAvailable_BackToBackStays_Allowed() {
+        index.markBooked(10L, today.plusDays(2), today.plusDays(5));
+
+        assertThat(index.isAvailable(10L, today, today.plusDays(2))).isTrue();
+        assertThat(index.isAvailable(10L, today.plusDays(5), today.plusDays(8))).isTrue();
+        assertThat(index.isAvailable(10L, today.plusDays(4), today.plusDays(6))).isFalse();
+        assertThat(index.isAvailable(10L, today, today.plusDays(3))).isFalse();
+    }
+
+    /**
+     * Stays that cross the 64 night word boundary must check both words.
+     */
+    @Test
+    public void isAvailable_StaySpanningWordBoundary() {
+        index.markBooked(10L, today.plusDays(64), today.plusDays(65));
+
+        assertThat(index.isAvailable(10L, today.plusDays(60), today.plusDays(64))).isTrue();
+        assertThat(index.isAvailable(10L, today.plusDays(60), today.plusDays(70))).isFalse();
+        assertThat(index.availableRooms(1L, today.plusDays(63), today.plusDays(66))).containsExactly(11L);
+    }
+
+    @Test
+    public void release_FreesNights() {
+        index.markBooked(10L, today, today.plusDays(3));
+        index.release(10L, today, today.plusDays(3));
+
+        assertThat(index.isAvailable(10L, today, today.plusDays(3))).isTrue();
+    }
+
+    /**
+     * As days pass the window rolls forward and future bookings remain at the same dates.
+     */
+    @Test
+    public void isAvailable_WindowRollsForward() {
+        index.markBooked(10L, today.plusDays(100), today.plusDays(102));
+
+        today = today.plusDays(70);
+
+        assertThat(index.isAvailable(10L, today.plusDays(30), today.plusDays(31))).isFalse();
+        assertThat(index.isAvailable(10L, today.plusDays(32), today.plusDays(40))).isTrue();
+    }
+
+    @Test
+    public void covers_OnlyStaysWithinHorizon() {
+        assertThat(index.covers(today, today.plusDays(1))).isTrue();
+        assertThat(index.covers(today.minusDays(1), today.plusDays(1))).isFalse();
+        assertThat(index.covers(today, today.plusDays(RoomAvailabilityIndex.HORIZON_NIGHTS))).isTrue();
+        assertThat(index.covers(today, today.plusDays(RoomAvailabilityIndex.HORIZON_NIGHTS + 1))).isFalse();
+    }
+
+    @Test
+    public void removeRoom_NoLongerSearched() {
+        index.removeRoom(10L);
+
+        assertThat(index.availableRooms(1L, today, today.plusDays(1))).containsExactly(11L);
+    }
+
+    @Test
+    public void freeNightsAround_CountsUpToNeighbouringBookings() {
+        index.markBooked(10L, today.plusDays(2), today.plusDays(4));
+        index.markBooked(10L, today.plusDays(7), today.plusDays(9));
+
+        assertThat(index.freeNightsAround(10L, today.plusDays(4), today.plusDays(6), 10)).containsExactly(0, 1);
+        assertThat(index.freeNightsAround(10L, today.plusDays(5), today.plusDays(7), 10)).containsExactly(1, 0);
+        assertThat(index.freeNightsAround(10L, today, today.plusDays(1), 10)).containsExactly(0, 1);
+        assertThat(index.freeNightsAround(10L, today.plusDays(9), today.plusDays(10), 10)).containsExactly(0, 10);
+    }
+}
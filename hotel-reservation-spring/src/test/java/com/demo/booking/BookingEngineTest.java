@@ -0,0 +1,308 @@
+package com.demo.booking;
+
+import com.demo.TimeProvider;
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Room;
+import com.demo.domain.RoomNight;
+import com.demo.domain.RoomType;
+import com.demo.dto.BookingResultDTO;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.InvalidBookingException;
+import com.demo.exceptions.NotFoundException;
+import com.demo.persistance.BookingRepository;
+import com.demo.persistance.RoomNightRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BookingEngineTest {
+
+    private final LocalDate today = LocalDate.of(2020, 1, 1);
+
+    private CatalogService catalogService;
+    private BookingRepository bookingRepository;
+    private RoomNightRepository roomNightRepository;
+    private RoomAvailabilityIndex availabilityIndex;
+    private BookingEngine bookingEngine;
+
+    @Before
+    public void setUp() {
+        TimeProvider timeProvider = new TimeProvider() {
+            @Override
+            public LocalDate localDate() {
+                return today;
+            }
+        };
+        catalogService = mock(CatalogService.class);
+        bookingRepository = mock(BookingRepository.class);
+        roomNightRepository = mock(RoomNightRepository.class);
+        availabilityIndex = new RoomAvailabilityIndex(timeProvider);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        bookingEngine = new BookingEngine(catalogService, bookingRepository, roomNightRepository, availabilityIndex,
+                transactionTemplate, timeProvider, new RecentBookings(100, Duration.ofMinutes(5)));
+    }
+
+    private Room createRoom(long id) {
+        Room room = new Room("R" + id, RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        room.setId(id);
+        availabilityIndex.registerRoom(1L, id);
+        when(catalogService.findRoom(id)).thenReturn(Optional.of(room));
+        return room;
+    }
+
+    private Booking createBooking(long roomId, LocalDate checkIn, LocalDate checkOut) {
+        Room room = new Room();
+        room.setId(roomId);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setDates(new Dates(checkIn, checkOut, LocalTime.of(10, 0), false, true));
+        return booking;
+    }
+
+    @Test
+    public void book_FreeRoom_Persisted() throws Exception {
+        createRoom(1);
+
+        Booking booking = bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3)));
+
+        assertThat(booking.getRoom().getRoomNumber()).isEqualTo("R1");
+        assertThat(booking.getCreatedTime()).isNotNull();
+        assertThat(booking.getNights()).extracting(RoomNight::getNight)
+                .containsExactly(today.plusDays(1), today.plusDays(2));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(1), today.plusDays(3))).isFalse();
+    }
+
+    @Test
+    public void book_OverlappingStay_Conflict() throws Exception {
+        createRoom(1);
+        bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3)));
+
+        assertThatThrownBy(() -> bookingEngine.book(createBooking(1, today.plusDays(2), today.plusDays(4))))
+                .isInstanceOf(BookingConflictException.class);
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    public void book_UnknownRoom_NotFound() {
+        assertThatThrownBy(() -> bookingEngine.book(createBooking(99, today.plusDays(1), today.plusDays(3))))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    public void book_CheckInInPast_Invalid() {
+        createRoom(1);
+
+        assertThatThrownBy(() -> bookingEngine.book(createBooking(1, today.minusDays(1), today.plusDays(3))))
+                .isInstanceOf(InvalidBookingException.class);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    /**
+     * A failed save must not leave the nights claimed otherwise the room can never be booked for them again.
+     */
+    @Test
+    public void book_SaveFails_ClaimReleased() {
+        createRoom(1);
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(1), today.plusDays(3))).isTrue();
+    }
+
+    /**
+     * Many threads racing for the same nights of one room, exactly one wins.
+     */
+    @Test
+    public void book_ConcurrentOverlappingStays_OnlyOneSucceeds() throws Exception {
+        createRoom(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            attempts.add(() -> {
+                try {
+                    bookingEngine.book(createBooking(1, today.plusDays(5), today.plusDays(7)));
+                    return true;
+                } catch (BookingConflictException e) {
+                    return false;
+                }
+            });
+        }
+
+        int successes = 0;
+        for (Future<Boolean> result : executor.invokeAll(attempts)) {
+            if (result.get()) {
+                successes++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(successes).isEqualTo(1);
+    }
+
+    @Test
+    public void bookAll_MixedRequests_ResultPerBooking() {
+        createRoom(1);
+        createRoom(2);
+
+        List<BookingResultDTO> results = bookingEngine.bookAll(Arrays.asList(
+                createBooking(1, today.plusDays(1), today.plusDays(3)),
+                createBooking(2, today.minusDays(1), today.plusDays(3)),
+                createBooking(99, today.plusDays(1), today.plusDays(3)),
+                createBooking(2, today.plusDays(1), today.plusDays(3))));
+
+        assertThat(results).extracting(BookingResultDTO::getStatus).containsExactly(
+                BookingResultDTO.Status.BOOKED, BookingResultDTO.Status.INVALID,
+                BookingResultDTO.Status.NOT_FOUND, BookingResultDTO.Status.BOOKED);
+        assertThat(results).extracting(BookingResultDTO::getIndex).containsExactly(0, 1, 2, 3);
+        verify(bookingRepository, times(2)).save(any(Booking.class));
+    }
+
+    /**
+     * Bookings in the same payload that overlap each other conflict like separate requests.
+     */
+    @Test
+    public void bookAll_OverlapWithinRequest_SecondConflicts() {
+        createRoom(1);
+
+        List<BookingResultDTO> results = bookingEngine.bookAll(Arrays.asList(
+                createBooking(1, today.plusDays(1), today.plusDays(3)),
+                createBooking(1, today.plusDays(2), today.plusDays(4)),
+                createBooking(1, today.plusDays(3), today.plusDays(5))));
+
+        assertThat(results).extracting(BookingResultDTO::getStatus).containsExactly(
+                BookingResultDTO.Status.BOOKED, BookingResultDTO.Status.CONFLICT, BookingResultDTO.Status.BOOKED);
+    }
+
+    /**
+     * When the batch is rejected each booking is retried alone so only the one at fault fails.
+     */
+    @Test
+    public void bookAll_BatchRejected_RetriedIndividually() {
+        createRoom(1);
+        createRoom(2);
+        Booking bad = createBooking(2, today.plusDays(1), today.plusDays(3));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == bad) {
+                throw new DataIntegrityViolationException("duplicate room night");
+            }
+            return invocation.getArgument(0);
+        });
+
+        List<BookingResultDTO> results = bookingEngine.bookAll(Arrays.asList(
+                createBooking(1, today.plusDays(1), today.plusDays(3)), bad));
+
+        assertThat(results).extracting(BookingResultDTO::getStatus).containsExactly(
+                BookingResultDTO.Status.BOOKED, BookingResultDTO.Status.CONFLICT);
+        assertThat(availabilityIndex.isAvailable(2L, today.plusDays(1), today.plusDays(3))).isTrue();
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(1), today.plusDays(3))).isFalse();
+    }
+
+    /**
+     * A night booked without the index knowing is rejected by the ledger and stays occupied, the rest of the claim
+     * is released.
+     */
+    @Test
+    public void book_LedgerHoldsNight_NightStaysBooked() {
+        createRoom(1);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate room night"));
+        when(roomNightRepository.findBookedNights(1L, today.plusDays(1), today.plusDays(3)))
+                .thenReturn(Arrays.asList(today.plusDays(2)));
+
+        assertThatThrownBy(() -> bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3))))
+                .isInstanceOf(BookingConflictException.class);
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(1), today.plusDays(2))).isTrue();
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(2), today.plusDays(3))).isFalse();
+    }
+
+    /**
+     * A client retrying a request it never got the answer to gets the original booking back.
+     */
+    @Test
+    public void book_SameReservationId_OriginalReturned() throws Exception {
+        createRoom(1);
+        Booking booking = bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3)));
+
+        Booking retry = createBooking(1, today.plusDays(1), today.plusDays(3));
+        retry.setReservationId(booking.getReservationId());
+
+        assertThat(bookingEngine.book(retry)).isSameAs(booking);
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, never()).findDetailByReservationId(any());
+    }
+
+    @Test
+    public void book_ReservationIdUsedForAnotherStay_Invalid() throws Exception {
+        createRoom(1);
+        Booking booking = bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3)));
+
+        Booking other = createBooking(1, today.plusDays(5), today.plusDays(6));
+        other.setReservationId(booking.getReservationId());
+
+        assertThatThrownBy(() -> bookingEngine.book(other)).isInstanceOf(InvalidBookingException.class);
+        assertThat(availabilityIndex.isAvailable(1L, today.plusDays(5), today.plusDays(6))).isTrue();
+    }
+
+    /**
+     * Once evicted from memory the retry conflicts on its own nights and the original is read from the database.
+     */
+    @Test
+    public void book_RetryNoLongerRemembered_FoundByReservationId() throws Exception {
+        Room room = createRoom(1);
+        availabilityIndex.claim(1L, today.plusDays(1), today.plusDays(3));
+        Booking original = createBooking(1, today.plusDays(1), today.plusDays(3));
+        original.setRoom(room);
+        when(bookingRepository.findDetailByReservationId(original.getReservationId()))
+                .thenReturn(Optional.of(original));
+
+        Booking retry = createBooking(1, today.plusDays(1), today.plusDays(3));
+        retry.setReservationId(original.getReservationId());
+
+        assertThat(bookingEngine.book(retry)).isSameAs(original);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    public void bookAll_RetriedBooking_ReportedBooked() throws Exception {
+        createRoom(1);
+        Booking booking = bookingEngine.book(createBooking(1, today.plusDays(1), today.plusDays(3)));
+        Booking retry = createBooking(1, today.plusDays(1), today.plusDays(3));
+        retry.setReservationId(booking.getReservationId());
+
+        List<BookingResultDTO> results = bookingEngine.bookAll(Arrays.asList(retry,
+                createBooking(1, today.plusDays(1), today.plusDays(2))));
+
+        assertThat(results).extracting(BookingResultDTO::getStatus).containsExactly(
+                BookingResultDTO.Status.BOOKED, BookingResultDTO.Status.CONFLICT);
+        assertThat(results.get(0).getReservationId()).isEqualTo(booking.getReservationId());
+    }
+}
@@ -0,0 +1,142 @@
+package com.demo.booking;
+
+import com.demo.domain.Booking;
+import com.demo.dto.BookingResultDTO;
+import com.demo.dto.BookingTicketDTO;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class BookingIntakeTest {
+
+    private final BookingEngine bookingEngine = mock(BookingEngine.class);
+
+    private BookingIntake bookingIntake;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        bookingIntake.stop();
+    }
+
+    private BookingIntake start(int queueCapacity, int batchSize) {
+        bookingIntake = new BookingIntake(bookingEngine, queueCapacity, 1, batchSize, Duration.ofMinutes(1), 100);
+        bookingIntake.start();
+        return bookingIntake;
+    }
+
+    private List<BookingResultDTO> failedAll(List<Booking> bookings) {
+        List<BookingResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            results.add(BookingResultDTO.failed(i, BookingResultDTO.Status.CONFLICT, "booking.conflict", "taken"));
+        }
+        return results;
+    }
+
+    private BookingTicketDTO awaitDone(UUID ticket) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        BookingTicketDTO current = bookingIntake.ticket(ticket).get();
+        while (current.getState() != BookingTicketDTO.State.DONE && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            current = bookingIntake.ticket(ticket).get();
+        }
+        return current;
+    }
+
+    /**
+     * Bookings queued while the worker is busy go out together in one call to the engine.
+     */
+    @Test
+    public void submit_QueuedWhileBusy_BookedAsOneBatch() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingEngine.bookAll(anyList())).thenAnswer(invocation -> {
+            busy.countDown();
+            release.await();
+            return failedAll(invocation.getArgument(0));
+        });
+        start(10, 10);
+
+        UUID first = bookingIntake.submit(new Booking()).get().getTicket();
+        assertThat(busy.await(5, TimeUnit.SECONDS)).isTrue();
+        List<UUID> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queued.add(bookingIntake.submit(new Booking()).get().getTicket());
+        }
+        assertThat(bookingIntake.ticket(queued.get(0)).get().getState()).isEqualTo(BookingTicketDTO.State.QUEUED);
+        release.countDown();
+
+        assertThat(awaitDone(first).getResult().getStatus()).isEqualTo(BookingResultDTO.Status.CONFLICT);
+        for (int i = 0; i < queued.size(); i++) {
+            BookingTicketDTO done = awaitDone(queued.get(i));
+            assertThat(done.getState()).isEqualTo(BookingTicketDTO.State.DONE);
+            assertThat(done.getResult().getIndex()).isEqualTo(i);
+        }
+        verify(bookingEngine, times(2)).bookAll(anyList());
+    }
+
+    /**
+     * A batch the engine fails on outright finishes every ticket as an error, each at its own position.
+     */
+    @Test
+    public void submit_BatchFails_EachTicketErrorAtItsIndex() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingEngine.bookAll(anyList())).thenAnswer(invocation -> {
+            busy.countDown();
+            release.await();
+            return failedAll(invocation.getArgument(0));
+        }).thenThrow(new IllegalStateException("database down"));
+        start(10, 10);
+
+        bookingIntake.submit(new Booking());
+        assertThat(busy.await(5, TimeUnit.SECONDS)).isTrue();
+        List<UUID> queued = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            queued.add(bookingIntake.submit(new Booking()).get().getTicket());
+        }
+        release.countDown();
+
+        for (int i = 0; i < queued.size(); i++) {
+            BookingResultDTO result = awaitDone(queued.get(i)).getResult();
+            assertThat(result.getStatus()).isEqualTo(BookingResultDTO.Status.ERROR);
+            assertThat(result.getIndex()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void submit_QueueFull_Refused() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingEngine.bookAll(anyList())).thenAnswer(invocation -> {
+            busy.countDown();
+            release.await();
+            return failedAll(invocation.getArgument(0));
+        });
+        start(1, 10);
+
+        assertThat(bookingIntake.submit(new Booking())).isPresent();
+        assertThat(busy.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bookingIntake.submit(new Booking())).isPresent();
+        assertThat(bookingIntake.submit(new Booking())).isEmpty();
+        assertThat(bookingIntake.queued()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    public void submit_AfterStop_Refused() throws Exception {
+        start(10, 10).stop();
+
+        assertThat(bookingIntake.submit(new Booking())).isEmpty();
+        verifyNoInteractions(bookingEngine);
+    }
+}
@@ -0,0 +1,150 @@
+package com.demo.booking;
+
+import com.demo.TimeProvider;
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.NotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RoomAllocatorTest {
+
+    private final LocalDate today = LocalDate.of(2020, 1, 1);
+
+    private final Map<Long, Room> rooms = new HashMap<>();
+
+    private RoomAvailabilityIndex availabilityIndex;
+    private BookingEngine bookingEngine;
+    private RoomAllocator allocator;
+
+    @Before
+    public void setUp() {
+        availabilityIndex = new RoomAvailabilityIndex(new TimeProvider() {
+            @Override
+            public LocalDate localDate() {
+                return today;
+            }
+        });
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.findRooms(any())).thenAnswer(invocation -> {
+            List<Room> found = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                found.add(rooms.get(id));
+            }
+            return found;
+        });
+        bookingEngine = mock(BookingEngine.class);
+        allocator = new RoomAllocator(availabilityIndex, catalogService, bookingEngine);
+    }
+
+    private Room createRoom(long id, RoomType roomType, int beds, double costPerNight) {
+        Room room = new Room("R" + id, roomType, beds, BigDecimal.valueOf(costPerNight));
+        room.setId(id);
+        rooms.put(id, room);
+        availabilityIndex.registerRoom(1L, id);
+        return room;
+    }
+
+    private Booking createBooking(LocalDate checkIn, LocalDate checkOut) {
+        Booking booking = new Booking();
+        booking.setDates(new Dates(checkIn, checkOut, LocalTime.of(10, 0), false, true));
+        return booking;
+    }
+
+    @Test
+    public void candidates_CheapestThatFits() {
+        createRoom(1, RoomType.Economy, 2, 80);
+        createRoom(2, RoomType.Economy, 2, 60);
+        createRoom(3, RoomType.Economy, 1, 40);
+        createRoom(4, RoomType.Luxury, 4, 30);
+        createRoom(5, RoomType.Economy, 4, 60);
+
+        assertThat(allocator.candidates(1L, RoomType.Economy, 2, today.plusDays(10), today.plusDays(12)))
+                .extracting(Room::getId).containsExactly(2L, 5L, 1L);
+    }
+
+    /**
+     * A stay that closes the gap between two bookings beats a cheaper room it would leave a lone night beside.
+     */
+    @Test
+    public void candidates_FewestFragmentsFirst() {
+        createRoom(1, RoomType.Economy, 2, 40);
+        createRoom(2, RoomType.Economy, 2, 60);
+        availabilityIndex.markBooked(1L, today.plusDays(5), today.plusDays(9));
+        availabilityIndex.markBooked(2L, today.plusDays(5), today.plusDays(10));
+        availabilityIndex.markBooked(2L, today.plusDays(12), today.plusDays(14));
+
+        assertThat(allocator.candidates(1L, null, 1, today.plusDays(10), today.plusDays(12)))
+                .extracting(Room::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void candidates_BookedRoomsSkipped() {
+        createRoom(1, RoomType.Economy, 2, 40);
+        createRoom(2, RoomType.Economy, 2, 60);
+        availabilityIndex.markBooked(1L, today.plusDays(11), today.plusDays(12));
+
+        assertThat(allocator.candidates(1L, null, 1, today.plusDays(10), today.plusDays(12)))
+                .extracting(Room::getId).containsExactly(2L);
+    }
+
+    /**
+     * Losing the best room to a concurrent booking falls through to the next best.
+     */
+    @Test
+    public void assign_BestRoomTaken_NextBestBooked() throws Exception {
+        createRoom(1, RoomType.Economy, 2, 40);
+        createRoom(2, RoomType.Economy, 2, 60);
+        when(bookingEngine.replay(any())).thenReturn(Optional.empty());
+        when(bookingEngine.book(any())).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getRoom().getId() == 1L) {
+                throw new BookingConflictException("taken");
+            }
+            return booking;
+        });
+
+        Booking booked = allocator.assign(1L, RoomType.Economy, 2, createBooking(today.plusDays(1), today.plusDays(3)));
+
+        assertThat(booked.getRoom().getId()).isEqualTo(2L);
+        verify(bookingEngine, times(2)).book(any());
+    }
+
+    @Test
+    public void assign_NoRoomFits_Conflict() throws Exception {
+        createRoom(1, RoomType.Economy, 2, 40);
+        when(bookingEngine.replay(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> allocator.assign(1L, RoomType.Economy, 3,
+                createBooking(today.plusDays(1), today.plusDays(3)))).isInstanceOf(BookingConflictException.class);
+        verify(bookingEngine, never()).book(any());
+    }
+
+    @Test
+    public void assign_UnknownHotel_NotFound() throws Exception {
+        when(bookingEngine.replay(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> allocator.assign(9L, null, 1, createBooking(today.plusDays(1), today.plusDays(3))))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
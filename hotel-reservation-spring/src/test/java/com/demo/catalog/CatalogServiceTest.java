@@ -0,0 +1,243 @@
+package com.demo.catalog;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.dto.CacheStatsDTO;
+import com.demo.exceptions.RoomInUseException;
+import com.demo.persistance.BookingRepository;
+import com.demo.persistance.HotelRepository;
+import com.demo.persistance.RoomRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+public class CatalogServiceTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(CatalogService.class)
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CatalogService.HOTELS, CatalogService.ROOMS,
+                    CatalogService.QUOTES);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+    }
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private HotelRepository hotelRepository;
+
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private BookingRepository bookingRepository;
+
+    @MockBean
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private Room createRoom(long id) {
+        Room room = new Room("R" + id, RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        room.setId(id);
+        when(roomRepository.findWithHotelById(id)).thenReturn(Optional.of(room));
+        return room;
+    }
+
+    private CacheStatsDTO roomCacheStats() {
+        return catalogService.cacheStats().stream()
+                .filter(s -> s.getName().equals(CatalogService.ROOMS)).findFirst().get();
+    }
+
+    /**
+     * Clearing a cache keeps its counters and the context is shared between tests, so only the change is checked.
+     */
+    @Test
+    public void findRoom_SecondReadServedFromCache() {
+        createRoom(1);
+        CacheStatsDTO before = roomCacheStats();
+
+        assertThat(catalogService.findRoom(1L)).isPresent();
+        assertThat(catalogService.findRoom(1L)).isPresent();
+
+        verify(roomRepository, times(1)).findWithHotelById(1L);
+        CacheStatsDTO after = roomCacheStats();
+        assertThat(after.getHitCount() - before.getHitCount()).isEqualTo(1);
+        assertThat(after.getMissCount() - before.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findRoom_NotFound_NotCached() {
+        when(roomRepository.findWithHotelById(1L)).thenReturn(Optional.empty());
+        assertThat(catalogService.findRoom(1L)).isEmpty();
+
+        createRoom(1);
+        assertThat(catalogService.findRoom(1L)).isPresent();
+    }
+
+    @Test
+    public void saveRoom_EvictsCachedCopy() {
+        Room room = createRoom(1);
+        catalogService.findRoom(1L);
+        when(roomRepository.save(any(Room.class))).thenReturn(room);
+
+        catalogService.saveRoom(room);
+        catalogService.findRoom(1L);
+
+        verify(roomRepository, times(2)).findWithHotelById(1L);
+        verify(availabilityIndex).registerRoom(null, 1L);
+    }
+
+    @Test
+    public void deleteRoom_EvictsCachedCopy() throws Exception {
+        createRoom(1);
+        catalogService.findRoom(1L);
+
+        catalogService.deleteRoom(1L);
+
+        assertThat(cacheManager.getCache(CatalogService.ROOMS).get(1L)).isNull();
+        verify(availabilityIndex).removeRoom(1L);
+    }
+
+    @Test
+    public void deleteRoom_Booked_InUseAndKept() {
+        createRoom(1);
+        catalogService.findRoom(1L);
+        when(bookingRepository.existsByRoomId(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> catalogService.deleteRoom(1L)).isInstanceOf(RoomInUseException.class);
+
+        verify(roomRepository, never()).deleteById(1L);
+        verify(availabilityIndex, never()).removeRoom(1L);
+        assertThat(cacheManager.getCache(CatalogService.ROOMS).get(1L)).isNotNull();
+    }
+
+    @Test
+    public void updateRoom_EvictsCachedCopy() {
+        createRoom(1);
+        catalogService.findRoom(1L);
+
+        Room changes = new Room("R1", RoomType.Business, 3, BigDecimal.valueOf(99));
+        assertThat(catalogService.updateRoom(1L, changes, 0L)).hasValueSatisfying(updated -> {
+            assertThat(updated.getRoomType()).isEqualTo(RoomType.Business);
+            assertThat(updated.getBeds()).isEqualTo(3);
+        });
+
+        assertThat(cacheManager.getCache(CatalogService.ROOMS).get(1L)).isNull();
+    }
+
+    /**
+     * A caller that read the room before someone else changed it is told so rather than overwriting the change.
+     */
+    @Test
+    public void updateRoom_StaleVersion_Conflict() {
+        createRoom(1);
+
+        assertThatThrownBy(() -> catalogService.updateRoom(1L, new Room("R1", RoomType.Business, 3,
+                BigDecimal.valueOf(99)), 4L)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(catalogService.findRoom(1L)).hasValueSatisfying(room ->
+                assertThat(room.getRoomType()).isEqualTo(RoomType.Economy));
+    }
+
+    /**
+     * Only the rooms missing from the cache are loaded, in a single query.
+     */
+    @Test
+    public void findRooms_LoadsOnlyMisses() {
+        Room cached = createRoom(1);
+        Room missing = createRoom(2);
+        catalogService.findRoom(1L);
+        when(roomRepository.findByIdIn(Collections.singletonList(2L))).thenReturn(Collections.singletonList(missing));
+
+        assertThat(catalogService.findRooms(Arrays.asList(1L, 2L))).containsExactlyInAnyOrder(cached, missing);
+        assertThat(catalogService.findRooms(Arrays.asList(1L, 2L))).hasSize(2);
+
+        verify(roomRepository, times(1)).findByIdIn(any());
+    }
+
+    /**
+     * A changed hotel is read again, and the rooms and quotes priced with its old late checkout fee are dropped.
+     */
+    @Test
+    public void updateHotel_EvictsHotelRoomsAndQuotes() {
+        Hotel hotel = new Hotel("Hotel Royal", null, 4, "royal@hotel.com");
+        hotel.setId(1L);
+        when(hotelRepository.findById(1L)).thenReturn(Optional.of(hotel));
+        catalogService.findHotel(1L);
+        cacheManager.getCache(CatalogService.QUOTES).put("quote", "price");
+
+        // the cached room holds its own copy of the hotel, as one loaded in an earlier session would.
+        Hotel loaded = new Hotel("Hotel Royal", null, 4, "royal@hotel.com");
+        Room stale = new Room("R1", RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        stale.setId(1L);
+        stale.setHotel(loaded);
+        Room fresh = new Room("R1", RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        fresh.setId(1L);
+        fresh.setHotel(hotel);
+        when(roomRepository.findWithHotelById(1L)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        catalogService.findRoom(1L);
+
+        Hotel changes = new Hotel("Hotel Royal", null, 5, "royal@hotel.com");
+        changes.setLateCheckoutFee(BigDecimal.TEN);
+        assertThat(catalogService.updateHotel(1L, changes)).hasValueSatisfying(updated -> {
+            assertThat(updated.getStars()).isEqualTo(5);
+            assertThat(updated.getLateCheckoutFee()).isEqualTo(BigDecimal.TEN);
+        });
+        catalogService.findHotel(1L);
+
+        verify(hotelRepository, times(3)).findById(1L);
+        assertThat(cacheManager.getCache(CatalogService.QUOTES).get("quote")).isNull();
+
+        Booking booking = new Booking();
+        booking.setRoom(catalogService.findRoom(1L).get());
+        booking.setDates(new Dates(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), LocalTime.of(10, 0), true,
+                true));
+        assertThat(booking.getChargeableLateCheckoutFee()).isEqualByComparingTo(BigDecimal.TEN);
+    }
+}
@@ -202,7 +202,7 @@ public class BookingTest {
         // enable late checkout
         reservation.getDates().setLateCheckout(true);
 
-        assertThat(reservation.getChargeableLateCheckoutFee()).isEqualTo(lateCheckoutFee);
+        assertThat(reservation.getChargeableLateCheckoutFee()).isEqualByComparingTo(lateCheckoutFee);
     }
 
     /**
@@ -220,7 +220,7 @@ public class BookingTest {
         // no late checkout = $0.00
         reservation.getDates().setLateCheckout(false);
 
-        assertThat(reservation.getChargeableLateCheckoutFee()).isEqualTo(BigDecimal.ZERO);
+        assertThat(reservation.getChargeableLateCheckoutFee()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     /**
@@ -239,7 +239,7 @@ public class BookingTest {
         reservation.setRoom(room);
         reservation.getDates().setLateCheckout(true);
 
-        assertThat(reservation.getLateCheckoutFee()).isEqualTo(BigDecimal.ZERO);
+        assertThat(reservation.getLateCheckoutFee()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     /**
@@ -258,7 +258,7 @@ public class BookingTest {
         reservation.setRoom(room);
         reservation.getDates().setLateCheckout(true);
 
-        assertThat(reservation.getLateCheckoutFee()).isEqualTo(BigDecimal.ZERO);
+        assertThat(reservation.getLateCheckoutFee()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     /**
@@ -276,7 +276,7 @@ public class BookingTest {
         reservation.setRoom(room);
         reservation.getDates().setLateCheckout(true);
 
-        assertThat(reservation.getLateCheckoutFee()).isEqualTo(lateCheckoutFee);
+        assertThat(reservation.getLateCheckoutFee()).isEqualByComparingTo(lateCheckoutFee);
     }
 
     /**
@@ -294,7 +294,7 @@ public class BookingTest {
         reservation.setRoom(room);
         reservation.getDates().setLateCheckout(true);
 
-        assertThat(reservation.getLateCheckoutFee()).isEqualTo(lateCheckoutFee);
+        assertThat(reservation.getLateCheckoutFee()).isEqualByComparingTo(lateCheckoutFee);
     }
 
     /**
@@ -317,7 +317,7 @@ public class BookingTest {
         reservation.getDates().setCheckInDate(LocalDate.of(2018, 1, 1));
         reservation.getDates().setCheckOutDate(LocalDate.of(2018, 1, 1));
 
-        assertThat(reservation.getTotalRoomCost()).isEqualTo(BigDecimal.ZERO);
+        assertThat(reservation.getTotalRoomCost()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     /**
@@ -341,7 +341,7 @@ public class BookingTest {
         // expected cost for 3 nights, note how no late fee is considered for this calculation.
         BigDecimal expectedCost = costPerNight.multiply(BigDecimal.valueOf(3));
 
-        assertThat(reservation.getTotalRoomCost()).isEqualTo(expectedCost);
+        assertThat(reservation.getTotalRoomCost()).isEqualByComparingTo(expectedCost);
     }
 
     /**
@@ -367,7 +367,7 @@ public class BookingTest {
         // expected cost for 3 nights
         BigDecimal expectedCost = costPerNight.multiply(BigDecimal.valueOf(3));
 
-        assertThat(reservation.getTotalRoomCostWithLateCheckoutFee()).isEqualTo(expectedCost);
+        assertThat(reservation.getTotalRoomCostWithLateCheckoutFee()).isEqualByComparingTo(expectedCost);
     }
 
     /**
@@ -394,9 +394,51 @@ public class BookingTest {
         // expected cost for 3 nights + late fee
         BigDecimal expectedCost = costPerNight.multiply(BigDecimal.valueOf(3)).add(lateCheckoutFee);
 
-        assertThat(reservation.getTotalRoomCostWithLateCheckoutFee()).isEqualTo(expectedCost);
+        assertThat(reservation.getTotalRoomCostWithLateCheckoutFee()).isEqualByComparingTo(expectedCost);
     }
 
-  
+    /**
+     * Tax is 10% of the total excluding tax, rounded to the cent, and every line is in dollars and cents.
+     */
+    @Test
+    public void getTotalCostIncludingTax_TaxRoundedToCent() {
+        Room room = createRoom();
+        room.setRoomType(RoomType.Economy);
+        room.getHotel().setLateCheckoutFee(BigDecimal.valueOf(20.50));
+        room.setCostPerNight(BigDecimal.valueOf(23.85));
+
+        Booking reservation = new Booking();
+        reservation.setRoom(room);
+        reservation.getDates().setLateCheckout(true);
+        reservation.getDates().setCheckInDate(LocalDate.of(2018, 1, 1));
+        reservation.getDates().setCheckOutDate(LocalDate.of(2018, 1, 2));
+
+        // 23.85 + 20.50 = 44.35, 10% = 4.435
+        assertThat(reservation.getTotalCostExcludingTax()).isEqualTo(new BigDecimal("44.35"));
+        assertThat(reservation.getTaxableAmount()).isEqualTo(new BigDecimal("4.44"));
+        assertThat(reservation.getTotalCostIncludingTax()).isEqualTo(new BigDecimal("48.79"));
+    }
 
-}
\ No newline at end of file
+    /**
+     * Priced once for every getter, and again once the stay or the room's price changes.
+     */
+    @Test
+    public void invoice_PricedOncePerState() {
+        Room room = createRoom();
+        room.getHotel().setLateCheckoutFee(BigDecimal.valueOf(20.50));
+
+        Booking reservation = new Booking();
+        reservation.setRoom(room);
+        reservation.getDates().setCheckInDate(LocalDate.of(2018, 1, 1));
+        reservation.getDates().setCheckOutDate(LocalDate.of(2018, 1, 2));
+
+        assertThat(reservation.getTotalCostIncludingTax()).isEqualTo(new BigDecimal("28.05"));
+        assertThat(reservation.invoice()).isSameAs(reservation.invoice());
+
+        reservation.getDates().setLateCheckout(true);
+        assertThat(reservation.getTotalCostExcludingTax()).isEqualTo(new BigDecimal("46.00"));
+
+        room.setCostPerNight(BigDecimal.valueOf(30));
+        assertThat(reservation.getTotalRoomCost()).isEqualTo(new BigDecimal("30.00"));
+    }
+}
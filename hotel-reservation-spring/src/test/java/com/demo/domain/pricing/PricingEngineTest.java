@@ -0,0 +1,79 @@
+package com.demo.domain.pricing;
+
+import com.demo.domain.RoomType;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PricingEngineTest {
+
+    @Test
+    public void price_AllLinesInCents() {
+        PriceBreakdown price = PricingEngine.price(RoomType.Economy, 2380, 2050, 3, true, new PriceBreakdown());
+
+        assertThat(price.getNights()).isEqualTo(3);
+        assertThat(price.getRoomCostCents()).isEqualTo(7140);
+        assertThat(price.getLateCheckoutFeeCents()).isEqualTo(2050);
+        assertThat(price.getChargeableLateCheckoutFeeCents()).isEqualTo(2050);
+        assertThat(price.getTotalExcludingTaxCents()).isEqualTo(9190);
+        assertThat(price.getTaxCents()).isEqualTo(919);
+        assertThat(price.getTotalIncludingTaxCents()).isEqualTo(10109);
+    }
+
+    @Test
+    public void price_NoLateCheckout_FeeNotCharged() {
+        PriceBreakdown price = PricingEngine.price(RoomType.Economy, 2380, 2050, 3, false, new PriceBreakdown());
+
+        assertThat(price.getLateCheckoutFeeCents()).isEqualTo(2050);
+        assertThat(price.getChargeableLateCheckoutFeeCents()).isZero();
+        assertThat(price.getTotalExcludingTaxCents()).isEqualTo(7140);
+    }
+
+    @Test
+    public void price_LuxuryRoom_FeeWaived() {
+        PriceBreakdown price = PricingEngine.price(RoomType.Luxury, 2380, 2050, 1, true, new PriceBreakdown());
+
+        assertThat(price.getLateCheckoutFeeCents()).isZero();
+        assertThat(price.getTotalExcludingTaxCents()).isEqualTo(2380);
+    }
+
+    /**
+     * Tax is rounded half up to the cent.
+     */
+    @Test
+    public void price_TaxRoundedHalfUp() {
+        assertThat(PricingEngine.price(RoomType.Economy, 1005, 0, 1, false, new PriceBreakdown()).getTaxCents())
+                .isEqualTo(101);
+        assertThat(PricingEngine.price(RoomType.Economy, 1004, 0, 1, false, new PriceBreakdown()).getTaxCents())
+                .isEqualTo(100);
+    }
+
+    /**
+     * A reused breakdown holds only the last stay priced.
+     */
+    @Test
+    public void price_ReusedBreakdown_Overwritten() {
+        PriceBreakdown price = new PriceBreakdown();
+        PricingEngine.price(RoomType.Economy, 2380, 2050, 3, true, price);
+
+        assertThat(PricingEngine.price(RoomType.Business, 1000, 2050, 1, true, price)).isSameAs(price);
+        assertThat(price.getChargeableLateCheckoutFeeCents()).isZero();
+        assertThat(price.getTotalIncludingTaxCents()).isEqualTo(1100);
+    }
+
+    @Test
+    public void toCents_RoundsBelowACent() {
+        assertThat(PricingEngine.toCents(BigDecimal.valueOf(20.5))).isEqualTo(2050);
+        assertThat(PricingEngine.toCents(new BigDecimal("0.005"))).isEqualTo(1);
+        assertThat(PricingEngine.toMoney(2050)).isEqualTo(new BigDecimal("20.50"));
+    }
+
+    @Test
+    public void price_Overflow_Throws() {
+        assertThatThrownBy(() -> PricingEngine.price(RoomType.Economy, Long.MAX_VALUE, 0, 2, false,
+                new PriceBreakdown())).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.dto;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RoomDTOTest {
+
+    @Test
+    public void from_CopiesRoomAndHotelSummary() {
+        Hotel hotel = new Hotel("Hotel Royal", new Address("Hotel Royal", "33 kent street", null,
+                State.VIC, "Melbourne", new Postcode("3000")), 4, "royal@hotel.com");
+        hotel.setId(3L);
+        Room room = new Room("A1", RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
+        room.setId(7L);
+        hotel.addRoom(room);
+
+        RoomDTO dto = RoomDTO.from(room);
+
+        assertThat(dto.getId()).isEqualTo(7L);
+        assertThat(dto.getRoomNumber()).isEqualTo("A1");
+        assertThat(dto.getRoomType()).isEqualTo(RoomType.Luxury);
+        assertThat(dto.getBeds()).isEqualTo(2);
+        assertThat(dto.getCostPerNight()).isEqualTo(BigDecimal.valueOf(63.3));
+        assertThat(dto.getVersion()).isEqualTo(0L);
+        assertThat(dto.hotelId()).isEqualTo(3L);
+        assertThat(dto.getHotel().getName()).isEqualTo("Hotel Royal");
+        assertThat(dto.getHotel().getState()).isEqualTo(State.VIC);
+        assertThat(dto.getHotel().getPostcode()).isEqualTo("3000");
+    }
+
+    /**
+     * The id and hotel of a request are never copied onto the new room, the hotel is looked up by id.
+     */
+    @Test
+    public void toRoom_DetailsOnly() {
+        RoomDTO dto = new RoomDTO();
+        dto.setId(7L);
+        HotelDTO hotel = new HotelDTO();
+        hotel.setId(3L);
+        dto.setHotel(hotel);
+        dto.setRoomNumber("A1");
+        dto.setRoomType(RoomType.Economy);
+        dto.setBeds(3);
+        dto.setCostPerNight(BigDecimal.TEN);
+
+        Room room = dto.toRoom();
+
+        assertThat(room.getId()).isNull();
+        assertThat(room.getHotel()).isNull();
+        assertThat(room.getRoomNumber()).isEqualTo("A1");
+        assertThat(room.getRoomType()).isEqualTo(RoomType.Economy);
+        assertThat(room.getBeds()).isEqualTo(3);
+        assertThat(room.getCostPerNight()).isEqualTo(BigDecimal.TEN);
+    }
+
+    @Test
+    public void toRoom_NoBeds_Null() {
+        assertThat(new RoomDTO().toRoom()).isNull();
+    }
+}
@@ -1,10 +1,16 @@
 package com.demo.hotel;
 
+import com.demo.booking.BookingEngine;
+import com.demo.booking.RoomAllocator;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
 import com.demo.domain.Hotel;
 import com.demo.domain.Room;
+import com.demo.domain.RoomType;
 import com.demo.domain.location.Address;
 import com.demo.domain.location.Postcode;
 import com.demo.domain.location.State;
+import com.demo.persistance.BookingRepository;
 import com.demo.persistance.HotelRepository;
 import com.demo.persistance.predicates.RoomPredicates;
 import com.demo.persistance.RoomRepository;
@@ -21,6 +27,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,43 +55,52 @@ public class BookingControllerTest {
     @MockBean
     private RoomRepository roomRepository;
 
+    @MockBean
+    private BookingEngine bookingEngine;
+
+    @MockBean
+    private BookingRepository bookingRepository;
+
+    @MockBean
+    private RoomAllocator roomAllocator;
+
  
 
 
     @Test
-    public void getAvailableHotelRooms_HotelIdNotFound_Throws404() throws Exception {
-        long hotelId = 4;
-        mockMvc.perform(get(String.format("/hotel/%d/rooms", hotelId)))
+    public void getBooking_BookingIdNotFound_Throws404() throws Exception {
+        long bookingId = 4;
+        mockMvc.perform(get(String.format("/booking/%d", bookingId)))
                 .andExpect(status().isNotFound());
     }
 
     /**
-     * Note: The model must contain the hotel so the UI can display detailed information.
+     * Note: The booking must contain the room and its hotel so the UI can display detailed information.
      */
     @Test
-    public void getAvailableHotelRooms_HotelHasAvailableRooms() throws Exception {
- 
-
-        // Dummy hotel to return in the mock.
+    public void getBooking_BookingFound_HasRoomAndHotel() throws Exception {
+        // Dummy hotel and room to return in the mock.
         Address address = new Address("Xavier Hotel", "100 smith road", "",
                 State.QLD, "Brisbane", new Postcode("4000"));
         Hotel hotel = new Hotel("Xavier Hotel", address, 4, "xavier@hotel.com");
         hotel.setId(3L);
+        Room room = new Room("R1", RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        room.setId(1L);
+        hotel.addRoom(room);
 
-        // Rather than recreate a new hotel room, setting total elements to 1 will achieve the same thing for testing.
-//        PageImpl<Room> page = new PageImpl<>(List, PageRequest.of(0, 20), 1);
-//        when(roomRepository.findAll()).thenReturn(page);
+        Booking booking = new Booking();
+        booking.setId(7L);
+        booking.setRoom(room);
+        booking.setDates(new Dates(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), LocalTime.of(10, 0),
+                false, true));
 
-        when(hotelRepository.findById(hotel.getId())).thenReturn(Optional.of(hotel));
+        when(bookingRepository.findDetailById(booking.getId())).thenReturn(Optional.of(booking));
 
-        mockMvc.perform(get(String.format("/hotel/%d/rooms", hotel.getId())))
+        mockMvc.perform(get(String.format("/booking/%d", booking.getId())))
                 .andExpect(status().isOk())
-                .andExpect(view().name("/hotel/rooms"))
-                .andExpect(model().attribute("hotel", Matchers.isA(Hotel.class)));
-
-        verify(roomRepository, times(1))
-                .findAll();
+                .andExpect(jsonPath("$.room.roomNumber").value("R1"))
+                .andExpect(jsonPath("$.room.hotel.name").value("Xavier Hotel"));
 
-        verify(hotelRepository, times(1)).findById(eq(hotel.getId()));
+        verify(bookingRepository, times(1)).findDetailById(eq(booking.getId()));
     }
-}
\ No newline at end of file
+}
@@ -1,30 +1,77 @@
 package com.demo.hotel;
 
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.persistance.RoomRepository;
+import com.demo.quote.QuoteService;
+import com.demo.search.FacetIndex;
+import com.demo.search.GeoGridIndex;
+import com.demo.search.SortedRoomIndex;
+import com.demo.search.TypeaheadIndex;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(UserController.class)
+@Import({FacetIndex.class, SortedRoomIndex.class})
 @ActiveProfiles("test")
 public class UserControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private CatalogService catalogService;
+
+    @MockBean
+    private QuoteService quoteService;
+
+    @MockBean
+    private TypeaheadIndex typeaheadIndex;
+
+    @MockBean
+    private GeoGridIndex geoGridIndex;
+
+    @Test
+    public void getAllRooms_NoRooms_EmptyPage() throws Exception {
+        mockMvc.perform(get("/users/allRoom"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    /**
+     * Served from the real, empty, facet index so a controller that is not given the index fails here.
+     */
+    @Test
+    public void search_NoRooms_EmptyResult() throws Exception {
+        mockMvc.perform(get("/users/search").param("roomType", "Economy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
     @Test
-    public void getSearchPage_HasCorrectView() throws Exception {
-        mockMvc.perform(get("/"))
+    public void hotels_SortedByName_EmptyResult() throws Exception {
+        mockMvc.perform(get("/users/hotels").param("sort", "name"))
                 .andExpect(status().isOk())
-                .andExpect(view().name("/users/allRoom"));
+                .andExpect(jsonPath("$").isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.demo.importer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvRecordReaderTest {
+
+    private CsvRecordReader reader(String csv) throws Exception {
+        return new CsvRecordReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void split_QuotedFields() {
+        assertThat(CsvRecordReader.split("a,\"b, c\",\"say \"\"hi\"\"\",,"))
+                .containsExactly("a", "b, c", "say \"hi\"", "", "");
+    }
+
+    @Test
+    public void next_ColumnsByHeaderName() throws Exception {
+        CsvRecordReader reader = reader("name,stars\n\n# skipped\nRoyal,4\nRyde, \n");
+
+        ImportRecord royal = reader.next();
+        ImportRecord ryde = reader.next();
+
+        assertThat(royal.get("name")).isEqualTo("Royal");
+        assertThat(royal.get("stars")).isEqualTo("4");
+        assertThat(royal.getLine()).isEqualTo(4);
+        assertThat(ryde.get("stars")).isNull();
+        assertThat(reader.next()).isNull();
+    }
+}
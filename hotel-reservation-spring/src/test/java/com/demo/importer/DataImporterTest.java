@@ -0,0 +1,95 @@
+package com.demo.importer;
+
+import com.demo.domain.Booking;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.exceptions.ImportException;
+import com.demo.persistance.BookingRepository;
+import com.demo.persistance.HotelRepository;
+import com.demo.persistance.RoomNightRepository;
+import com.demo.persistance.RoomRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class DataImporterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    // chunk size 1 and several parsers so the chunks are parsed out of order.
+    private DataImporter importer(String rooms, String bookings) {
+        DataImporter importer = new DataImporter(transactionTemplate, resourceLoader,
+                "classpath:import/hotels.csv", rooms, bookings, 1, 4);
+        ReflectionTestUtils.setField(importer, "entityManager", entityManager.getEntityManager());
+        return importer;
+    }
+
+    private <T> List<T> all(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    @Test
+    public void importAll_CsvAndJson() throws Exception {
+        importer("classpath:import/rooms.json", "classpath:import/bookings.csv").importAll();
+
+        List<Hotel> hotels = all(hotelRepository.findAll());
+        assertThat(hotels).extracting(Hotel::getName).containsExactlyInAnyOrder("Hotel Royal", "Hotel Ryde");
+        assertThat(hotels).extracting(hotel -> hotel.getAddress().getBusiness())
+                .containsExactlyInAnyOrder("Royal, Pty Ltd", null);
+        assertThat(hotels).extracting(hotel -> hotel.getAddress().getLatitude())
+                .containsExactlyInAnyOrder(-37.8136, null);
+
+        List<Room> rooms = all(roomRepository.findAll());
+        assertThat(rooms).extracting(Room::getRoomNumber).containsExactlyInAnyOrder("R1", "R2", "Y1");
+
+        List<Booking> bookings = all(bookingRepository.findAll());
+        assertThat(bookings).hasSize(3);
+        Long r1 = rooms.stream().filter(room -> room.getRoomNumber().equals("R1")).findFirst().get().getId();
+        assertThat(roomNightRepository.isBooked(r1, LocalDate.of(2019, 1, 3), LocalDate.of(2019, 1, 4))).isTrue();
+        assertThat(roomNightRepository.isBooked(r1, LocalDate.of(2019, 1, 4), LocalDate.of(2019, 1, 5))).isFalse();
+    }
+
+    @Test
+    public void importAll_UnknownHotel_FailsWithLine() {
+        assertThatThrownBy(() -> importer("classpath:import/rooms-unknown-hotel.csv", "").importAll())
+                .isInstanceOf(ImportException.class)
+                .hasMessageContaining("line 3")
+                .hasMessageContaining("Unknown hotel missing");
+    }
+}
@@ -0,0 +1,139 @@
+package com.demo.persistance;
+
+import com.demo.domain.*;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import com.demo.dto.BookedRoomDTO;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Room createRoom() {
+        return createRoom("A");
+    }
+
+    private Room createRoom(String roomNumber) {
+        Hotel hotel = new Hotel("Hotel Royal",
+                new Address("Hotel Royal", "33 kent street", null,
+                        State.VIC, "Melbourne", new Postcode("3000")),
+                4, "royal@hotel.com");
+        Room room = new Room(roomNumber, RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
+        hotel.addRoom(room);
+        entityManager.persist(hotel);
+        return room;
+    }
+
+    private Booking book(Room room, LocalDate checkIn) {
+        Booking reservation = new Booking();
+        reservation.setRoom(room);
+        reservation.setCreatedTime(LocalDateTime.now());
+        reservation.setDates(new Dates(checkIn, checkIn.plusDays(1), LocalTime.of(10, 0), false, true));
+        reservation.occupyNights();
+        return entityManager.persist(reservation);
+    }
+
+    /**
+     * Walking the keyset pages visits every booking exactly once in id order.
+     */
+    @Test
+    public void findBookedRoomsAfter_PagesThroughAllBookings() {
+        Room room = createRoom();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            bookingIds.add(book(room, LocalDate.of(2020, 1, 1).plusDays(i)).getId());
+        }
+
+        List<Long> visited = new ArrayList<>();
+        long cursor = 0;
+        List<BookedRoomDTO> page;
+        do {
+            page = bookingRepository.findBookedRoomsAfter(cursor, PageRequest.of(0, 3));
+            page.forEach(dto -> visited.add(dto.getBookingId()));
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getBookingId();
+            }
+        } while (page.size() == 3);
+
+        assertThat(visited).containsExactlyElementsOf(bookingIds);
+    }
+
+    @Test
+    public void findBookedRoomsAfter_ProjectsRoomAndHotel() {
+        Room room = createRoom();
+        Booking booking = book(room, LocalDate.of(2020, 1, 1));
+
+        BookedRoomDTO dto = bookingRepository.findBookedRoomsAfter(0L, PageRequest.of(0, 10)).get(0);
+
+        assertThat(dto.getBookingId()).isEqualTo(booking.getId());
+        assertThat(dto.getRoomNumber()).isEqualTo("A");
+        assertThat(dto.getHotelName()).isEqualTo("Hotel Royal");
+        assertThat(dto.getCheckInDate()).isEqualTo(LocalDate.of(2020, 1, 1));
+        assertThat(dto.getCheckOutDate()).isEqualTo(LocalDate.of(2020, 1, 2));
+    }
+
+    @Test
+    public void findDetailByReservationId_FindsBookingWithRoom() {
+        Room room = createRoom();
+        Booking booking = book(room, LocalDate.of(2020, 1, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(bookingRepository.findDetailByReservationId(booking.getReservationId()))
+                .hasValueSatisfying(found -> assertThat(found.getRoom().getHotel().getName()).isEqualTo("Hotel Royal"));
+        assertThat(bookingRepository.findDetailByReservationId(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    public void existsByRoomId_OnlyBookedRooms() {
+        Room booked = createRoom("A");
+        Room free = createRoom("B");
+        book(booked, LocalDate.of(2020, 1, 1));
+
+        assertThat(bookingRepository.existsByRoomId(booked.getId())).isTrue();
+        assertThat(bookingRepository.existsByRoomId(free.getId())).isFalse();
+    }
+
+    /**
+     * The unique index catches a retried booking the in memory table no longer remembers.
+     */
+    @Test
+    public void reservationId_Unique() {
+        Room room = createRoom();
+        UUID reservationId = book(room, LocalDate.of(2020, 1, 1)).getReservationId();
+
+        Booking retry = new Booking();
+        retry.setReservationId(reservationId);
+        retry.setRoom(room);
+        retry.setCreatedTime(LocalDateTime.now());
+        retry.setDates(new Dates(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 2), LocalTime.of(10, 0), false, true));
+
+        assertThatThrownBy(() -> entityManager.persistAndFlush(retry)).isInstanceOf(PersistenceException.class);
+    }
+}
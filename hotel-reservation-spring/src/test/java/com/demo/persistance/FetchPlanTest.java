@@ -0,0 +1,147 @@
+package com.demo.persistance;
+
+import com.demo.domain.*;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The number of SQL statements each listing issues must not grow with the number of rows it returns.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class FetchPlanTest {
+
+    private static final int ROOMS_PER_HOTEL = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    private Statistics statistics;
+
+    private final List<Long> hotelIds = new ArrayList<>();
+    private final List<Long> roomIds = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // every room gets a booking so the whole Room -> Hotel -> Booking graph is populated.
+    private void seed(int hotels) {
+        for (int i = 0; i < hotels; i++) {
+            int n = hotelIds.size();
+            Hotel hotel = new Hotel("Hotel " + n,
+                    new Address("Hotel " + n, n + " kent street", null,
+                            State.VIC, "Melbourne", new Postcode("3000")),
+                    4, "hotel" + n + "@hotel.com");
+            List<Room> rooms = new ArrayList<>();
+            for (int r = 0; r < ROOMS_PER_HOTEL; r++) {
+                Room room = new Room(n + "-" + r, RoomType.Economy, 2, BigDecimal.valueOf(40));
+                hotel.addRoom(room);
+                rooms.add(room);
+            }
+            hotelIds.add(entityManager.persistAndGetId(hotel, Long.class));
+
+            for (Room room : rooms) {
+                roomIds.add(room.getId());
+                Booking booking = new Booking();
+                booking.setRoom(room);
+                booking.setCreatedTime(LocalDateTime.now());
+                booking.setDates(new Dates(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 3),
+                        LocalTime.of(10, 0), false, true));
+                booking.occupyNights();
+                bookingIds.add(entityManager.persistAndGetId(booking, Long.class));
+            }
+        }
+        entityManager.flush();
+    }
+
+    private long statements(Runnable listing) {
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long roomsWithHotels() {
+        return statements(() -> roomRepository.findByIdIn(roomIds)
+                .forEach(room -> assertThat(room.getHotel().getName()).isNotNull()));
+    }
+
+    private long roomSummaries() {
+        return statements(() -> roomRepository.findSummariesAfter(0L, PageRequest.of(0, 500)));
+    }
+
+    private long bookedRooms() {
+        return statements(() -> bookingRepository.findBookedRoomsAfter(0L, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    public void listings_StatementCountConstantAsDataGrows() {
+        seed(2);
+        long withHotels = roomsWithHotels();
+        long summaries = roomSummaries();
+        long booked = bookedRooms();
+
+        seed(10);
+
+        assertThat(roomsWithHotels()).isEqualTo(withHotels).isEqualTo(1);
+        assertThat(roomSummaries()).isEqualTo(summaries).isEqualTo(1);
+        assertThat(bookedRooms()).isEqualTo(booked).isEqualTo(1);
+    }
+
+    @Test
+    public void findDetailById_LoadsRoomHotelAndGuestsInOneSelect() {
+        seed(1);
+
+        long count = statements(() -> {
+            Booking booking = bookingRepository.findDetailById(bookingIds.get(0)).get();
+            assertThat(booking.getRoom().getHotel().getName()).isEqualTo("Hotel 0");
+            assertThat(booking.getGuests()).isEmpty();
+        });
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    public void findWithRoomsById_LoadsAllRoomsInOneSelect() {
+        seed(1);
+
+        long count = statements(() ->
+                assertThat(hotelRepository.findWithRoomsById(hotelIds.get(0)).get().getRooms())
+                        .hasSize(ROOMS_PER_HOTEL));
+
+        assertThat(count).isEqualTo(1);
+    }
+}
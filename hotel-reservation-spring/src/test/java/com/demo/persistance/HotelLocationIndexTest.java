@@ -0,0 +1,95 @@
+package com.demo.persistance;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Location searches must be served by the indexes declared on {@code Hotel}, checked against H2's query plan.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class HotelLocationIndexTest {
+
+    private static final String[] SUBURBS = {"Melbourne", "North Ryde", "Summer West", "Brunswick"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Before
+    public void setUp() {
+        State[] states = State.values();
+        for (int i = 0; i < 200; i++) {
+            String name = "Hotel " + i;
+            entityManager.persist(new Hotel(name,
+                    new Address(name, i + " kent street", null, states[i % states.length],
+                            SUBURBS[(i / states.length) % SUBURBS.length],
+                            new Postcode(String.valueOf(3000 + (i / states.length) % 50))),
+                    4, "hotel" + i + "@hotel.com"));
+        }
+        entityManager.flush();
+    }
+
+    private String explain(String where) {
+        return String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT id FROM hotel WHERE " + where)
+                .getSingleResult()).toUpperCase();
+    }
+
+    @Test
+    public void explain_StateSuburbAndPostcode_UsesCompositeIndex() {
+        String plan = explain("state = 'VIC' AND suburb_key = 'MELBOURNE' AND postcode = '3000'");
+
+        assertThat(plan).contains("IDX_HOTEL_STATE_SUBURB").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    public void explain_StateOnly_UsesCompositeIndexPrefix() {
+        assertThat(explain("state = 'VIC'")).contains("IDX_HOTEL_STATE_SUBURB").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    public void explain_SuburbOnly_UsesSuburbIndex() {
+        assertThat(explain("suburb_key = 'MELBOURNE'")).contains("IDX_HOTEL_SUBURB").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    public void explain_PostcodeOnly_UsesPostcodeIndex() {
+        assertThat(explain("postcode = '3000'")).contains("IDX_HOTEL_POSTCODE").doesNotContain("TABLESCAN");
+    }
+
+    /**
+     * The generated query compares the columns directly, a function applied to a column stops the index being used.
+     */
+    @Test
+    public void findAllByLocation_NoFunctionOnColumns() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(hotelRepository.findAllByLocation("vic", " melbourne ", "3000", PageRequest.of(0, 10)))
+                .isNotEmpty()
+                .allSatisfy(hotel -> assertThat(hotel.getAddress().getSuburb()).isEqualTo("Melbourne"));
+        assertThat(Arrays.asList(statistics.getQueries()))
+                .isNotEmpty()
+                .noneMatch(query -> query.toLowerCase().contains("upper("));
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.persistance;
+
+import com.demo.domain.Room;
+import com.demo.dto.WriteConflictStatsDTO;
+import org.junit.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OptimisticRetryTest {
+
+    private final OptimisticRetry retry = new OptimisticRetry(3, Duration.ZERO);
+
+    private WriteConflictStatsDTO stats(String name) {
+        return retry.stats().stream().filter(s -> s.getName().equals(name)).findFirst().get();
+    }
+
+    @Test
+    public void execute_ConflictThenSuccess_Retried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(OptimisticRetry.ROOM_UPDATE, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Room.class, 1L);
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        WriteConflictStatsDTO stats = stats(OptimisticRetry.ROOM_UPDATE);
+        assertThat(stats.getWriteCount()).isEqualTo(1);
+        assertThat(stats.getConflictCount()).isEqualTo(1);
+        assertThat(stats.getRetryCount()).isEqualTo(1);
+        assertThat(stats.getFailureCount()).isZero();
+    }
+
+    @Test
+    public void execute_AlwaysConflicts_GivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(OptimisticRetry.ROOM_UPDATE, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Room.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(stats(OptimisticRetry.ROOM_UPDATE).getFailureCount()).isEqualTo(1);
+    }
+
+    /**
+     * Only lost optimistic locks are worth another attempt.
+     */
+    @Test
+    public void execute_OtherFailure_NotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(OptimisticRetry.ROOM_UPDATE, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(stats(OptimisticRetry.ROOM_UPDATE).getConflictCount()).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.persistance;
+
+import com.demo.domain.*;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class RoomNightRepositoryTest {
+
+    private final LocalDate start = LocalDate.of(2020, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    private Room roomA;
+    private Room roomB;
+    private Hotel hotel;
+
+    private void createHotel() {
+        hotel = new Hotel("Hotel Royal",
+                new Address("Hotel Royal", "33 kent street", null,
+                        State.VIC, "Melbourne", new Postcode("3000")),
+                4, "royal@hotel.com");
+        roomA = new Room("A", RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
+        roomB = new Room("B", RoomType.Economy, 4, BigDecimal.valueOf(45.4));
+        hotel.addRoom(roomA);
+        hotel.addRoom(roomB);
+        entityManager.persist(hotel);
+    }
+
+    private void book(Room room, LocalDate checkIn, LocalDate checkOut) {
+        Booking reservation = new Booking();
+        reservation.setRoom(room);
+        reservation.setCreatedTime(LocalDateTime.now());
+        reservation.setDates(new Dates(checkIn, checkOut, LocalTime.of(10, 0), false, true));
+        reservation.occupyNights();
+        entityManager.persist(reservation);
+    }
+
+    /**
+     * The check out day is not occupied so it does not count as booked.
+     */
+    @Test
+    public void isBooked_OnlyOccupiedNights() {
+        createHotel();
+        book(roomA, start, start.plusDays(2));
+
+        assertThat(roomNightRepository.isBooked(roomA.getId(), start, start.plusDays(1))).isTrue();
+        assertThat(roomNightRepository.isBooked(roomA.getId(), start.plusDays(1), start.plusDays(5))).isTrue();
+        assertThat(roomNightRepository.isBooked(roomA.getId(), start.plusDays(2), start.plusDays(5))).isFalse();
+        assertThat(roomNightRepository.isBooked(roomB.getId(), start, start.plusDays(2))).isFalse();
+    }
+
+    @Test
+    public void findBookedNights_OnlyThatRoomInRange() {
+        createHotel();
+        book(roomA, start, start.plusDays(2));
+        book(roomB, start.plusDays(1), start.plusDays(3));
+
+        assertThat(roomNightRepository.findBookedNights(roomA.getId(), start.plusDays(1), start.plusDays(5)))
+                .containsExactly(start.plusDays(1));
+    }
+
+    @Test
+    public void countOccupiedRooms_PerNight() {
+        createHotel();
+        book(roomA, start, start.plusDays(2));
+        book(roomB, start.plusDays(1), start.plusDays(3));
+
+        assertThat(roomNightRepository.countOccupiedRooms(hotel.getId(), start)).isEqualTo(1);
+        assertThat(roomNightRepository.countOccupiedRooms(hotel.getId(), start.plusDays(1))).isEqualTo(2);
+        assertThat(roomNightRepository.countOccupiedRooms(hotel.getId(), start.plusDays(3))).isEqualTo(0);
+    }
+
+    @Test
+    public void streamNightsBetween_OnlyNightsInRange() {
+        createHotel();
+        book(roomA, start, start.plusDays(2));
+        book(roomA, start.plusDays(10), start.plusDays(12));
+
+        List<LocalDate> nights = roomNightRepository.streamNightsBetween(start.plusDays(1), start.plusDays(11))
+                .map(RoomNightId::getNight)
+                .collect(Collectors.toList());
+
+        assertThat(nights).containsExactlyInAnyOrder(start.plusDays(1), start.plusDays(10));
+    }
+}
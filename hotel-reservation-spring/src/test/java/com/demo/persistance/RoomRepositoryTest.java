@@ -4,6 +4,7 @@ import com.demo.domain.*;
 import com.demo.domain.location.Address;
 import com.demo.domain.location.Postcode;
 import com.demo.domain.location.State;
+import com.demo.dto.RoomSummaryDTO;
 import com.demo.persistance.predicates.RoomPredicates;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,8 +17,10 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,101 +34,135 @@ public class RoomRepositoryTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    private Hotel createHotel() {
+        return new Hotel("Hotel Royal",
+                new Address("Hotel Royal", "33 kent street", null,
+                        State.VIC, "Melbourne", new Postcode("3000")),
+                4, "royal@hotel.com");
+    }
+
+    // boiler plate to create a valid reservation occupying the room ledger...
+    private Booking book(Room room, LocalDate checkIn, LocalDate checkOut) {
+        Booking reservation = new Booking();
+        reservation.setRoom(room);
+        reservation.setCreatedTime(LocalDateTime.now());
+        reservation.setDates(new Dates(checkIn, checkOut, LocalTime.of(10, 0), false, true));
+        reservation.occupyNights();
+        return entityManager.persist(reservation);
+    }
+
     /**
      * A room cannot be available if the hotel cannot be found by its hotel id.
      */
     @Test
     public void availableRoom_HotelNotFound() {
-        Long hotelId = entityManager.persistAndGetId(new Hotel("Hotel Royal",
-                new Address("Hotel Royal", "33 kent street", null,
-                        State.VIC, "Melbourne", new Postcode("3000")),
-                4, "royal@hotel.com"), Long.class);
+        Long hotelId = entityManager.persistAndGetId(createHotel(), Long.class);
         Long nextMissingHotelId = hotelId + 1;
 
         PageRequest page = PageRequest.of(0, 20);
-        Page<Room> rooms = roomRepository.findAll(RoomPredicates.availableRoom(nextMissingHotelId), page);
+        Page<Room> rooms = roomRepository.findAll(RoomPredicates.availableRoom(nextMissingHotelId,
+                LocalDate.now(), LocalDate.now().plusDays(3)), page);
         assertThat(rooms.getTotalElements()).isEqualTo(0);
     }
 
     /**
-     * When a hotel has many rooms but only 1 room is free (no reservation assigned) it should be the only room returned.
+     * When a hotel has many rooms but only 1 room is free for the stay it should be the only room returned.
      */
     @Test
     public void availableRoom_AtLeastOneFree() {
-        Hotel hotel = new Hotel("Hotel Royal",
-                new Address("Hotel Royal", "33 kent street", null,
-                        State.VIC, "Melbourne", new Postcode("3000")),
-                4, "royal@hotel.com");
+        Hotel hotel = createHotel();
 
-        // This room is free since the reservation is null by default.
+        // This room is free since it has no booked nights.
         Room roomA = new Room("A", RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
         hotel.addRoom(roomA);
 
         Room roomB = new Room("B", RoomType.Economy, 4, BigDecimal.valueOf(45.4));
-        // boiler plate to create a valid reservation...
-        Booking reservation = new Booking();
-        Dates reservationDates = new Dates();
-        reservationDates.setCheckInDate(LocalDate.now());
-        reservationDates.setCheckOutDate(LocalDate.now().plusDays(3));
-        reservationDates.setEstimatedCheckInTime(LocalTime.of(10, 0));
-        reservationDates.setPolicyAcknowledged(true);
-        reservation.setDates(reservationDates);
-
-        roomB.setBooking(reservation);
         hotel.addRoom(roomB);
 
         Long hotelId = entityManager.persistAndGetId(hotel, Long.class);
+        book(roomB, LocalDate.now(), LocalDate.now().plusDays(3));
+
         PageRequest page = PageRequest.of(0, 20);
-        Page<Room> availableRooms = roomRepository.findAll(RoomPredicates.availableRoom(hotelId), page);
+        Page<Room> availableRooms = roomRepository.findAll(RoomPredicates.availableRoom(hotelId,
+                LocalDate.now(), LocalDate.now().plusDays(3)), page);
 
-        // The only free hotel is returned.
+        // The only free room is returned.
         assertThat(availableRooms.getTotalElements()).isEqualTo(1);
         assertThat(availableRooms.getContent().get(0).getRoomNumber()).isEqualTo("A");
     }
 
     /**
-     * When a hotel has no free rooms, an empty list should be returned. Note: Both rooms have a non null reservation.
+     * When a hotel has no free rooms, an empty list should be returned. Note: Both rooms are booked for the stay.
      */
     @Test
     public void availableRoom_NoneFree() {
-        Hotel hotel = new Hotel("Hotel Royal",
-                new Address("Hotel Royal", "33 kent street", null,
-                        State.VIC, "Melbourne", new Postcode("3000")),
-                4, "royal@hotel.com");
+        Hotel hotel = createHotel();
 
-        // boiler plate to create a valid reservation...
         Room roomA = new Room("A", RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
-        Booking reservationA = new Booking();
-        Dates reservationDatesA = new Dates();
-        reservationDatesA.setCheckInDate(LocalDate.now());
-        reservationDatesA.setCheckOutDate(LocalDate.now().plusDays(3));
-        reservationDatesA.setEstimatedCheckInTime(LocalTime.of(10, 0));
-        reservationDatesA.setPolicyAcknowledged(true);
-        reservationA.setDates(reservationDatesA);
-       
-        roomA.setBooking(reservationA);
-
-        // boiler plate to create a valid reservation...
         Room roomB = new Room("B", RoomType.Economy, 4, BigDecimal.valueOf(45.4));
-        Booking reservationB = new Booking();
-        Dates reservationDatesB = new Dates();
-        reservationDatesB.setCheckInDate(LocalDate.now());
-        reservationDatesB.setCheckOutDate(LocalDate.now().plusDays(3));
-        reservationDatesB.setEstimatedCheckInTime(LocalTime.of(10, 0));
-        reservationDatesB.setPolicyAcknowledged(true);
-        reservationB.setDates(reservationDatesB);
-
-        roomB.setBooking(reservationB);
-
         hotel.addRoom(roomA);
         hotel.addRoom(roomB);
 
         Long id = entityManager.persistAndGetId(hotel, Long.class);
+        book(roomA, LocalDate.now(), LocalDate.now().plusDays(3));
+        book(roomB, LocalDate.now(), LocalDate.now().plusDays(3));
+
         PageRequest page = PageRequest.of(0, 20);
-        Page<Room> availableRooms = roomRepository.findAll(RoomPredicates.availableRoom(id), page);
+        Page<Room> availableRooms = roomRepository.findAll(RoomPredicates.availableRoom(id,
+                LocalDate.now(), LocalDate.now().plusDays(3)), page);
 
         // no rooms are free
         assertThat(availableRooms.getTotalElements()).isEqualTo(0);
         assertThat(availableRooms.getContent()).isEmpty();
     }
-}
\ No newline at end of file
+
+    /**
+     * A room keeps taking bookings over time, it is only unavailable for the nights it is occupied.
+     */
+    @Test
+    public void availableRoom_ManyBookingsPerRoom() {
+        Hotel hotel = createHotel();
+        Room roomA = new Room("A", RoomType.Luxury, 2, BigDecimal.valueOf(63.3));
+        hotel.addRoom(roomA);
+
+        Long id = entityManager.persistAndGetId(hotel, Long.class);
+        LocalDate start = LocalDate.now();
+        for (int i = 0; i < 10; i++) {
+            book(roomA, start.plusDays(i * 3), start.plusDays(i * 3 + 2));
+        }
+
+        PageRequest page = PageRequest.of(0, 20);
+        // night 2 of every 3 is free
+        assertThat(roomRepository.findAll(RoomPredicates.availableRoom(id,
+                start.plusDays(5), start.plusDays(6)), page).getTotalElements()).isEqualTo(1);
+        assertThat(roomRepository.findAll(RoomPredicates.availableRoom(id,
+                start.plusDays(5), start.plusDays(7)), page).getTotalElements()).isEqualTo(0);
+    }
+
+    /**
+     * Walking the keyset pages returns every room once, in id order, with the hotel referenced by id.
+     */
+    @Test
+    public void findSummariesAfter_PagesByCursor() {
+        Hotel hotel = createHotel();
+        Long hotelId = entityManager.persistAndGetId(hotel, Long.class);
+        // persisted one by one, the hotel's set of rooms would cascade them in no particular id order
+        for (int i = 0; i < 5; i++) {
+            Room room = new Room("R" + i, RoomType.Economy, 2, BigDecimal.valueOf(40 + i));
+            hotel.addRoom(room);
+            entityManager.persist(room);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        PageRequest page = PageRequest.of(0, 2);
+        List<RoomSummaryDTO> first = roomRepository.findSummariesAfter(0L, page);
+        List<RoomSummaryDTO> second = roomRepository.findSummariesAfter(first.get(1).getId(), page);
+        List<RoomSummaryDTO> last = roomRepository.findSummariesAfter(second.get(1).getId(), page);
+
+        assertThat(first).extracting(RoomSummaryDTO::getRoomNumber).containsExactly("R0", "R1");
+        assertThat(second).extracting(RoomSummaryDTO::getRoomNumber).containsExactly("R2", "R3");
+        assertThat(last).extracting(RoomSummaryDTO::getRoomNumber).containsExactly("R4");
+        assertThat(first).extracting(RoomSummaryDTO::getHotelId).containsOnly(hotelId);
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.persistance;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements catalog reads cost with the second level and query caches warm versus cold.
+ *
+ * <p>The caches only see committed writes so every repository call here runs in its own transaction rather than
+ * the rolled back test transaction.</p>
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @After
+    public void tearDown() {
+        hotelRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Hotel createHotel(String name, State state) {
+        return new Hotel(name,
+                new Address(name, "33 kent street", null, state, "Melbourne", new Postcode("3000")),
+                4, name.toLowerCase().replace(' ', '.') + "@hotel.com");
+    }
+
+    private long statements(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void findById_WarmCache_NoStatements() {
+        Long id = hotelRepository.save(createHotel("Hotel Royal", State.VIC)).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        long cold = statements(() -> hotelRepository.findById(id));
+        long warm = statements(() -> hotelRepository.findById(id));
+
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findAllByLocation_WarmCache_NoStatements() {
+        hotelRepository.save(createHotel("Hotel Royal", State.VIC));
+        hotelRepository.save(createHotel("Hotel Ryde", State.NSW));
+
+        long cold = statements(() -> hotelRepository.findAllByLocation("VIC", null, null, PageRequest.of(0, 10)));
+        long warm = statements(() -> hotelRepository.findAllByLocation("VIC", null, null, PageRequest.of(0, 10)));
+
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Writing a hotel invalidates the cached location results so the new hotel shows up straight away.
+     */
+    @Test
+    public void findAllByLocation_HotelAdded_CachedResultsDropped() {
+        hotelRepository.save(createHotel("Hotel Royal", State.VIC));
+        hotelRepository.findAllByLocation("VIC", null, null, PageRequest.of(0, 10));
+
+        hotelRepository.save(createHotel("Hotel Summer", State.VIC));
+        Page<Hotel> hotels = hotelRepository.findAllByLocation("VIC", null, null, PageRequest.of(0, 10));
+
+        assertThat(hotels.getContent()).extracting(Hotel::getName)
+                .containsExactlyInAnyOrder("Hotel Royal", "Hotel Summer");
+    }
+}
@@ -0,0 +1,111 @@
+package com.demo.quote;
+
+import com.demo.TimeProvider;
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Hotel;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import com.demo.dto.HotelQuoteDTO;
+import com.demo.dto.RoomQuoteDTO;
+import com.demo.persistance.HotelRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class QuoteServiceTest {
+
+    private final LocalDate today = LocalDate.of(2020, 1, 1);
+
+    private CatalogService catalogService;
+    private RoomAvailabilityIndex availabilityIndex;
+    private QuoteService quoteService;
+
+    private Hotel hotel;
+
+    @Before
+    public void setUp() {
+        TimeProvider timeProvider = new TimeProvider() {
+            @Override
+            public LocalDate localDate() {
+                return today;
+            }
+        };
+        catalogService = mock(CatalogService.class);
+        availabilityIndex = new RoomAvailabilityIndex(timeProvider);
+        quoteService = new QuoteService(catalogService, mock(HotelRepository.class), availabilityIndex,
+                new ConcurrentMapCacheManager(CatalogService.QUOTES));
+
+        hotel = new Hotel("Royal Hotel", new Address("Royal Hotel", "166 Albert Road", null,
+                State.VIC, "Melbourne", new Postcode("3000")), 4, "royal@hotel.com");
+        hotel.setId(1L);
+        hotel.setLateCheckoutFee(BigDecimal.valueOf(20.50));
+        Room economy = createRoom(1, RoomType.Economy, BigDecimal.valueOf(23.80));
+        Room luxury = createRoom(2, RoomType.Luxury, BigDecimal.valueOf(100));
+        when(catalogService.findRooms(any())).thenReturn(Arrays.asList(economy, luxury));
+    }
+
+    private Room createRoom(long id, RoomType roomType, BigDecimal costPerNight) {
+        Room room = new Room("R" + id, roomType, 2, costPerNight);
+        room.setId(id);
+        room.setHotel(hotel);
+        availabilityIndex.registerRoom(1L, id);
+        return room;
+    }
+
+    private RoomQuoteDTO room(HotelQuoteDTO quote, long roomId) {
+        return quote.getRooms().stream().filter(r -> r.getRoomId() == roomId).findFirst().get();
+    }
+
+    @Test
+    public void quote_PricesEveryFreeRoom() {
+        HotelQuoteDTO quote = quoteService.quote(1L, today.plusDays(1), today.plusDays(4), true);
+
+        assertThat(quote.getNights()).isEqualTo(3);
+        assertThat(quote.getRooms()).hasSize(2);
+
+        RoomQuoteDTO economy = room(quote, 1);
+        assertThat(economy.getTotalRoomCost()).isEqualByComparingTo("71.40");
+        assertThat(economy.getChargeableLateCheckoutFee()).isEqualByComparingTo("20.50");
+        assertThat(economy.getTaxableAmount()).isEqualByComparingTo("9.19");
+        assertThat(economy.getTotalCostIncludingTax()).isEqualByComparingTo("101.09");
+
+        RoomQuoteDTO luxury = room(quote, 2);
+        assertThat(luxury.getChargeableLateCheckoutFee()).isEqualByComparingTo("0");
+        assertThat(luxury.getTotalCostIncludingTax()).isEqualByComparingTo("330");
+    }
+
+    /**
+     * Prices are cached by hotel and length of stay, availability is always current.
+     */
+    @Test
+    public void quote_PricesCachedAvailabilityLive() {
+        quoteService.quote(1L, today.plusDays(1), today.plusDays(3), false);
+        availabilityIndex.markBooked(1L, today.plusDays(5), today.plusDays(6));
+
+        HotelQuoteDTO quote = quoteService.quote(1L, today.plusDays(5), today.plusDays(7), false);
+
+        assertThat(quote.getRooms()).extracting(RoomQuoteDTO::getRoomId).containsExactly(2L);
+        verify(catalogService, times(1)).findRooms(any());
+    }
+
+    @Test
+    public void quote_DifferentStay_PricedSeparately() {
+        quoteService.quote(1L, today.plusDays(1), today.plusDays(3), false);
+        quoteService.quote(1L, today.plusDays(1), today.plusDays(3), true);
+        quoteService.quote(1L, today.plusDays(1), today.plusDays(4), false);
+
+        verify(catalogService, times(3)).findRooms(any());
+    }
+}
@@ -0,0 +1,91 @@
+package com.demo.reactive;
+
+import com.demo.admin.AdminController;
+import com.demo.catalog.CatalogService;
+import com.demo.domain.Hotel;
+import com.demo.persistance.OptimisticRetry;
+import com.demo.persistance.RoomRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ReactiveAdminHandlerTest {
+
+    private static final String HOTEL = "{\"name\":\"Xavier Hotel\",\"stars\":4,\"email\":\"xavier@hotel.com\"}";
+
+    private CatalogService catalogService;
+    private WebTestClient client;
+
+    @Before
+    public void setUp() {
+        catalogService = mock(CatalogService.class);
+        // stands in for bean validation, a hotel needs an email
+        Validator validator = new Validator() {
+            @Override
+            public boolean supports(Class<?> type) {
+                return Hotel.class.equals(type);
+            }
+
+            @Override
+            public void validate(Object target, Errors errors) {
+                if (((Hotel) target).getEmail() == null) {
+                    errors.rejectValue("email", "required", "required");
+                }
+            }
+        };
+        ReactiveAdminHandler handler = new ReactiveAdminHandler(new AdminController(mock(RoomRepository.class),
+                catalogService, new OptimisticRetry(3, Duration.ZERO)), validator);
+        client = WebTestClient.bindToRouterFunction(new ReactiveConfig("r2dbc:h2:mem:///reactive-test")
+                .reactiveRoutes(mock(ReactiveBookingHandler.class), mock(ReactiveUserHandler.class), handler))
+                .build();
+    }
+
+    @Test
+    public void createHotel_Valid_Created() {
+        when(catalogService.createHotel(any(Hotel.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        client.post().uri("/admin/createHotel").contentType(MediaType.APPLICATION_JSON).bodyValue(HOTEL).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Xavier Hotel");
+    }
+
+    /**
+     * Rejected before JPA sees it, like the controller's {@code @Valid} hotel.
+     */
+    @Test
+    public void createHotel_Invalid_BadRequest() {
+        client.post().uri("/admin/createHotel").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Xavier Hotel\",\"stars\":4}").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$[0].code").isEqualTo("email");
+
+        verifyNoInteractions(catalogService);
+    }
+
+    @Test
+    public void updateHotel_Invalid_BadRequest() {
+        client.put().uri("/admin/updateHotel/3").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Xavier Hotel\",\"stars\":4}").exchange()
+                .expectStatus().isBadRequest();
+
+        verify(catalogService, never()).updateHotel(eq(3L), any(Hotel.class));
+    }
+
+    @Test
+    public void updateHotel_Unknown_NotFound() {
+        when(catalogService.updateHotel(eq(3L), any(Hotel.class))).thenReturn(Optional.empty());
+
+        client.put().uri("/admin/updateHotel/3").contentType(MediaType.APPLICATION_JSON).bodyValue(HOTEL).exchange()
+                .expectStatus().isNotFound();
+    }
+}
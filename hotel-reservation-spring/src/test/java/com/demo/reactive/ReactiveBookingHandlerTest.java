@@ -0,0 +1,186 @@
+package com.demo.reactive;
+
+import com.demo.booking.BookingEngine;
+import com.demo.domain.Booking;
+import com.demo.domain.Dates;
+import com.demo.domain.Room;
+import com.demo.domain.RoomType;
+import com.demo.dto.BookingResultDTO;
+import com.demo.exceptions.BookingConflictException;
+import com.demo.exceptions.InvalidBookingException;
+import com.demo.persistance.BookingRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class ReactiveBookingHandlerTest {
+
+    private static final String BOOKING = "{\"room\":{\"id\":1},\"dates\":{\"checkInDate\":\"2030-01-01\"," +
+            "\"checkOutDate\":\"2030-01-03\",\"estimatedCheckInTime\":\"10:00\",\"policyAcknowledged\":true}}";
+
+    private BookingEngine bookingEngine;
+    private ReactiveBookingStore store;
+    private WebTestClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        bookingEngine = mock(BookingEngine.class);
+        store = mock(ReactiveBookingStore.class);
+        ReactiveBookingHandler handler = new ReactiveBookingHandler(bookingEngine, store,
+                mock(BookingRepository.class));
+        ReactiveUserHandler userHandler = mock(ReactiveUserHandler.class);
+        client = WebTestClient.bindToRouterFunction(new ReactiveConfig("r2dbc:h2:mem:///reactive-test")
+                .reactiveRoutes(handler, userHandler, mock(ReactiveAdminHandler.class))).build();
+
+        // the engine hands back the catalog room, which the response prices the booking from.
+        doAnswer(invocation -> {
+            Room room = new Room("R1", RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+            room.setId(1L);
+            invocation.<Booking>getArgument(0).setRoom(room);
+            return null;
+        }).when(bookingEngine).claim(any(Booking.class));
+        when(bookingEngine.conflict(any(Booking.class))).thenReturn(new BookingConflictException("Room 1 is booked"));
+    }
+
+    private Booking original() {
+        Room room = new Room("R1", RoomType.Economy, 2, BigDecimal.valueOf(25.50));
+        room.setId(1L);
+        Booking booking = new Booking();
+        booking.setReservationId(UUID.randomUUID());
+        booking.setRoom(room);
+        booking.setDates(new Dates(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), LocalTime.of(10, 0), false,
+                true));
+        return booking;
+    }
+
+    private WebTestClient.ResponseSpec post(String path, String body) {
+        return client.post().uri(path).contentType(MediaType.APPLICATION_JSON).bodyValue(body).exchange();
+    }
+
+    @Test
+    public void createRoomBooking_Claimed_Inserted() {
+        when(store.insert(anyList())).thenReturn(Mono.empty());
+
+        post("/booking/createRoomBooking", BOOKING)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.reservationId").exists();
+
+        verify(store).insert(anyList());
+        verify(bookingEngine, never()).release(any(Booking.class));
+    }
+
+    /**
+     * A night the index did not know was booked is rejected by the ledger, only the nights it doesn't hold are
+     * released.
+     */
+    @Test
+    public void createRoomBooking_LedgerRejects_ConflictAndReleased() {
+        when(store.insert(anyList())).thenReturn(Mono.error(new DataIntegrityViolationException("room night")));
+
+        post("/booking/createRoomBooking", BOOKING).expectStatus().isEqualTo(409);
+
+        verify(bookingEngine).releaseRejected(any(Booking.class));
+        verify(bookingEngine, never()).release(any(Booking.class));
+    }
+
+    /**
+     * A retry evicted from memory finds its own nights taken, the original booking is read from the database.
+     */
+    @Test
+    public void createRoomBooking_RetryNoLongerRemembered_OriginalReturned() throws Exception {
+        Booking original = original();
+        doThrow(new BookingConflictException("Room 1 is booked")).when(bookingEngine).claim(any(Booking.class));
+        when(bookingEngine.findBooked(any(Booking.class))).thenReturn(Optional.of(original));
+
+        post("/booking/createRoomBooking", BOOKING)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.reservationId").isEqualTo(original.getReservationId().toString());
+
+        verifyNoInteractions(store);
+    }
+
+    /**
+     * A retry whose claim succeeded, eg after the original was cancelled from the index, is rejected on its
+     * reservation id and gets the original booking.
+     */
+    @Test
+    public void createRoomBooking_RetryRejectedByDatabase_OriginalReturned() throws Exception {
+        Booking original = original();
+        when(store.insert(anyList())).thenReturn(Mono.error(new DataIntegrityViolationException("reservation id")));
+        when(bookingEngine.findBooked(any(Booking.class))).thenReturn(Optional.of(original));
+
+        post("/booking/createRoomBooking", BOOKING)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.reservationId").isEqualTo(original.getReservationId().toString());
+
+        verify(bookingEngine).releaseRejected(any(Booking.class));
+    }
+
+    @Test
+    public void createRoomBooking_Invalid_BadRequest() throws Exception {
+        doThrow(new InvalidBookingException(new Dates.ValidationError("checkInDate.future", "in the past")))
+                .when(bookingEngine).claim(any(Booking.class));
+
+        post("/booking/createRoomBooking", BOOKING)
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("checkInDate.future");
+
+        verifyNoInteractions(store);
+    }
+
+    /**
+     * When the batch is rejected each booking is retried alone so only the one at fault fails.
+     */
+    @Test
+    public void createBulkBooking_BatchRejected_RetriedIndividually() {
+        when(bookingEngine.claimAll(anyList())).thenReturn(new BookingResultDTO[2]);
+        when(store.insert(argThat(bookings -> bookings != null && bookings.size() == 2)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("room night")));
+        when(store.insert(argThat(bookings -> bookings != null && bookings.size() == 1)))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.error(new DataIntegrityViolationException("room night")));
+
+        post("/booking/bulk", "[" + BOOKING + "," + BOOKING + "]")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("BOOKED")
+                .jsonPath("$[1].status").isEqualTo("CONFLICT");
+
+        verify(bookingEngine, times(1)).releaseRejected(any(Booking.class));
+    }
+
+    @Test
+    public void bookedRooms_LimitNotANumber_BadRequest() {
+        client.get().uri("/booking/rooms?limit=ten").exchange().expectStatus().isBadRequest();
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    public void createBulkBooking_RetryRejectedAlone_OriginalReturned() throws Exception {
+        Booking original = original();
+        when(bookingEngine.claimAll(anyList())).thenReturn(new BookingResultDTO[1]);
+        when(store.insert(anyList())).thenReturn(Mono.error(new DataIntegrityViolationException("reservation id")));
+        when(bookingEngine.findBooked(any(Booking.class))).thenReturn(Optional.of(original));
+
+        post("/booking/bulk", "[" + BOOKING + "]")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("BOOKED")
+                .jsonPath("$[0].reservationId").isEqualTo(original.getReservationId().toString());
+    }
+}
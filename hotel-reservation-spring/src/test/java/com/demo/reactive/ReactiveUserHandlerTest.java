@@ -0,0 +1,75 @@
+package com.demo.reactive;
+
+import com.demo.availability.RoomAvailabilityIndex;
+import com.demo.catalog.CatalogService;
+import com.demo.hotel.UserController;
+import com.demo.persistance.RoomRepository;
+import com.demo.quote.QuoteService;
+import com.demo.search.FacetIndex;
+import com.demo.search.GeoGridIndex;
+import com.demo.search.SortedRoomIndex;
+import com.demo.search.TypeaheadIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class ReactiveUserHandlerTest {
+
+    private ReactiveBookingStore store;
+    private CatalogService catalogService;
+    private WebTestClient client;
+
+    @Before
+    public void setUp() {
+        store = mock(ReactiveBookingStore.class);
+        catalogService = mock(CatalogService.class);
+        RoomAvailabilityIndex availabilityIndex = mock(RoomAvailabilityIndex.class);
+        ReactiveUserHandler handler = new ReactiveUserHandler(store, availabilityIndex,
+                new UserController(mock(RoomRepository.class), availabilityIndex, catalogService,
+                        mock(QuoteService.class), mock(TypeaheadIndex.class), mock(GeoGridIndex.class),
+                        new FacetIndex(), new SortedRoomIndex()));
+        client = WebTestClient.bindToRouterFunction(new ReactiveConfig("r2dbc:h2:mem:///reactive-test")
+                .reactiveRoutes(mock(ReactiveBookingHandler.class), handler, mock(ReactiveAdminHandler.class)))
+                .build();
+    }
+
+    /**
+     * The catalog may read through JPA on a cache miss, so the search never runs on the event loop.
+     */
+    @Test
+    public void search_RunsOffEventLoop() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(catalogService.findRooms(anyCollection())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return Collections.emptyList();
+        });
+
+        client.get().uri("/users/search?roomType=Economy").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.total").isEqualTo(0);
+
+        assertThat(thread.get()).startsWith("boundedElastic");
+    }
+
+    @Test
+    public void search_UnknownRoomType_BadRequest() {
+        client.get().uri("/users/search?roomType=Penthouse").exchange().expectStatus().isBadRequest();
+
+        verifyNoInteractions(catalogService);
+    }
+
+    @Test
+    public void availableRooms_HotelIdNotANumber_BadRequest() {
+        client.get().uri("/users/availableRooms?hotelId=abc&checkInDate=2030-01-01&checkOutDate=2030-01-02")
+                .exchange().expectStatus().isBadRequest();
+
+        verifyNoInteractions(store);
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class FacetIndexTest {
+
+    private FacetIndex index;
+
+    private static Hotel createHotel(long id, State state, int stars) {
+        Address address = new Address("Hotel " + id, "33 kent street", null, state, "Suburb", new Postcode("3000"));
+        Hotel hotel = new Hotel("Hotel " + id, address, stars, "hotel" + id + "@hotel.com");
+        hotel.setId(id);
+        return hotel;
+    }
+
+    @Before
+    public void setUp() {
+        index = new FacetIndex();
+        index.load(Arrays.asList(createHotel(1, State.VIC, 4), createHotel(2, State.NSW, 5)),
+                Collections.emptyList());
+        index.putRoom(10L, 1L, RoomType.Economy, BigDecimal.valueOf(80));
+        index.putRoom(11L, 1L, RoomType.Economy, BigDecimal.valueOf(120));
+        index.putRoom(12L, 1L, RoomType.Luxury, BigDecimal.valueOf(350));
+        index.putRoom(20L, 2L, RoomType.Economy, BigDecimal.valueOf(99.99));
+        index.putRoom(21L, 2L, RoomType.Business, BigDecimal.valueOf(200));
+    }
+
+    @Test
+    public void search_NoFilters_CountsEveryRoom() {
+        FacetIndex.Result result = index.search(null, null, null, null, null, 10);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getRoomIds()).containsExactlyInAnyOrder(10L, 11L, 12L, 20L, 21L);
+        assertThat(result.getFacets().get(FacetIndex.STATE)).containsOnly(entry("VIC", 3), entry("NSW", 2));
+        assertThat(result.getFacets().get(FacetIndex.PRICE_BAND)).containsOnly(entry("UNDER_100", 2),
+                entry("FROM_100", 1), entry("FROM_200", 1), entry("FROM_300", 1));
+    }
+
+    /**
+     * The counts of a filtered facet show what each other value would find, the rest only count matching rooms.
+     */
+    @Test
+    public void search_Filtered_FacetIgnoresItsOwnFilter() {
+        FacetIndex.Result result = index.search(State.VIC, null, RoomType.Economy, null, null, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getRoomIds()).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(result.getFacets().get(FacetIndex.STATE)).containsOnly(entry("VIC", 2), entry("NSW", 1));
+        assertThat(result.getFacets().get(FacetIndex.ROOM_TYPE)).containsOnly(entry("Economy", 2),
+                entry("Luxury", 1));
+        assertThat(result.getFacets().get(FacetIndex.STARS)).containsOnly(entry("4", 2));
+    }
+
+    @Test
+    public void search_Available_OnlyCountsAcceptedRooms() {
+        FacetIndex.Result result = index.search(null, null, RoomType.Economy, null, roomId -> roomId != 10L, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getRoomIds()).containsExactlyInAnyOrder(11L, 20L);
+        assertThat(result.getFacets().get(FacetIndex.ROOM_TYPE)).containsOnly(entry("Economy", 2),
+                entry("Luxury", 1), entry("Business", 1));
+    }
+
+    @Test
+    public void search_Limit_TotalCoversAllMatches() {
+        FacetIndex.Result result = index.search(null, null, null, null, null, 2);
+
+        assertThat(result.getRoomIds()).hasSize(2);
+        assertThat(result.getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    public void putRoom_Changed_MovedBetweenFacets() {
+        index.putRoom(10L, 1L, RoomType.Luxury, BigDecimal.valueOf(600));
+        index.removeRoom(11L);
+
+        FacetIndex.Result result = index.search(State.VIC, null, null, null, null, 10);
+
+        assertThat(result.getRoomIds()).containsExactlyInAnyOrder(10L, 12L);
+        assertThat(result.getFacets().get(FacetIndex.ROOM_TYPE)).containsOnly(entry("Luxury", 2));
+        assertThat(result.getFacets().get(FacetIndex.PRICE_BAND)).containsOnly(entry("FROM_300", 1),
+                entry("FROM_500", 1));
+    }
+
+    @Test
+    public void putHotel_Changed_RoomsFollow() {
+        index.putHotel(createHotel(1, State.QLD, 3));
+
+        FacetIndex.Result result = index.search(State.QLD, 3, null, null, null, 10);
+
+        assertThat(result.getRoomIds()).containsExactlyInAnyOrder(10L, 11L, 12L);
+        assertThat(result.getFacets().get(FacetIndex.STATE)).containsOnly(entry("QLD", 3));
+        assertThat(result.getFacets().get(FacetIndex.STARS)).containsOnly(entry("3", 3));
+    }
+}
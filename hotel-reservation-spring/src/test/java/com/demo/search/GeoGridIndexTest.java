@@ -0,0 +1,106 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import com.demo.dto.NearbyHotelDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeoGridIndexTest {
+
+    // Melbourne CBD
+    private static final double LATITUDE = -37.8136;
+    private static final double LONGITUDE = 144.9631;
+
+    private GeoGridIndex index;
+
+    private static Hotel createHotel(long id, String name, Double latitude, Double longitude) {
+        Address address = new Address(name, "33 kent street", null, State.VIC, "Melbourne", new Postcode("3000"));
+        address.setLatitude(latitude);
+        address.setLongitude(longitude);
+        Hotel hotel = new Hotel(name, address, 4, "hotel" + id + "@hotel.com");
+        hotel.setId(id);
+        return hotel;
+    }
+
+    @Before
+    public void setUp() {
+        index = new GeoGridIndex();
+        index.load(Arrays.asList(
+                createHotel(1, "Docklands", -37.8147, 144.9469),
+                createHotel(2, "Carlton", -37.8001, 144.9671),
+                createHotel(3, "Glen Waverley", -37.8781, 145.1648),
+                createHotel(4, "Sydney", -33.8688, 151.2093),
+                createHotel(5, "No Coordinates", null, null)));
+    }
+
+    @Test
+    public void load_SkipsHotelsWithoutCoordinates() {
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void withinRadius_NearestFirst() {
+        assertThat(index.withinRadius(LATITUDE, LONGITUDE, 5, 10, id -> true))
+                .extracting(NearbyHotelDTO::getName)
+                .containsExactly("Docklands", "Carlton");
+    }
+
+    @Test
+    public void withinRadius_CrossesCells() {
+        assertThat(index.withinRadius(LATITUDE, LONGITUDE, 25, 10, id -> true))
+                .extracting(NearbyHotelDTO::getHotelId)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void withinRadius_FilterAndLimit() {
+        assertThat(index.withinRadius(LATITUDE, LONGITUDE, 25, 10, id -> id != 1L))
+                .extracting(NearbyHotelDTO::getHotelId).containsExactly(2L, 3L);
+        assertThat(index.withinRadius(LATITUDE, LONGITUDE, 25, 1, id -> true))
+                .extracting(NearbyHotelDTO::getHotelId).containsExactly(1L);
+    }
+
+    /**
+     * Keeps widening the search until enough hotels are found.
+     */
+    @Test
+    public void nearest_FarAway() {
+        assertThat(index.nearest(LATITUDE, LONGITUDE, 4, id -> true))
+                .extracting(NearbyHotelDTO::getName)
+                .containsExactly("Docklands", "Carlton", "Glen Waverley", "Sydney");
+        assertThat(index.nearest(LATITUDE, LONGITUDE, 10, id -> true)).hasSize(4);
+    }
+
+    @Test
+    public void put_MovedHotel_FoundAtNewLocation() {
+        index.put(createHotel(4, "Sydney", LATITUDE, LONGITUDE));
+
+        assertThat(index.withinRadius(LATITUDE, LONGITUDE, 1, 10, id -> true))
+                .extracting(NearbyHotelDTO::getHotelId).containsExactly(4L);
+        assertThat(index.withinRadius(-33.8688, 151.2093, 50, 10, id -> true)).isEmpty();
+    }
+
+    /**
+     * A search near the antimeridian finds hotels on the other side of it.
+     */
+    @Test
+    public void withinRadius_WrapsAntimeridian() {
+        index.put(createHotel(6, "Fiji East", -17.0, 179.99));
+
+        assertThat(index.withinRadius(-17.0, -179.99, 10, 10, id -> true))
+                .extracting(NearbyHotelDTO::getHotelId).containsExactly(6L);
+    }
+
+    @Test
+    public void distanceKm_MelbourneToSydney() {
+        assertThat(GeoGridIndex.distanceKm(LATITUDE, LONGITUDE, -33.8688, 151.2093)).isCloseTo(714, within(5.0));
+    }
+}
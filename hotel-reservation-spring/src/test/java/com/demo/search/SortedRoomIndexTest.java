@@ -0,0 +1,110 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.RoomType;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SortedRoomIndexTest {
+
+    private SortedRoomIndex index;
+
+    private static Hotel createHotel(long id, String name, int stars, State state, String suburb, String postcode) {
+        Address address = new Address(name, "33 kent street", null, state, suburb, new Postcode(postcode));
+        Hotel hotel = new Hotel(name, address, stars, "hotel" + id + "@hotel.com");
+        hotel.setId(id);
+        return hotel;
+    }
+
+    private static SortedRoomIndex.Filter any() {
+        return SortedRoomIndex.any();
+    }
+
+    @Before
+    public void setUp() {
+        index = new SortedRoomIndex();
+        index.load(Arrays.asList(
+                createHotel(1, "Yarra Hotel", 4, State.VIC, "Melbourne", "3000"),
+                createHotel(2, "Albert Hotel", 5, State.VIC, "Melbourne", "3000"),
+                createHotel(3, "Harbour Hotel", 3, State.NSW, "Sydney", "2000")),
+                Collections.emptyList());
+        index.putRoom(10L, 1L, "Y1", RoomType.Economy, BigDecimal.valueOf(90));
+        index.putRoom(11L, 1L, "Y2", RoomType.Luxury, BigDecimal.valueOf(300));
+        index.putRoom(20L, 2L, "A1", RoomType.Economy, BigDecimal.valueOf(150));
+        index.putRoom(21L, 2L, "A2", RoomType.Business, BigDecimal.valueOf(60));
+        index.putRoom(30L, 3L, "H1", RoomType.Economy, BigDecimal.valueOf(40));
+    }
+
+    @Test
+    public void rooms_EachOrder() {
+        assertThat(index.rooms(SortOrder.LOWEST, any(), null, 10)).containsExactly(30L, 21L, 10L, 20L, 11L);
+        assertThat(index.rooms(SortOrder.HIGHEST, any(), null, 10)).containsExactly(11L, 20L, 10L, 21L, 30L);
+        assertThat(index.rooms(SortOrder.NAME, any(), null, 10)).containsExactly(20L, 21L, 30L, 10L, 11L);
+        assertThat(index.rooms(SortOrder.STARS, any(), null, 10)).containsExactly(21L, 20L, 10L, 11L, 30L);
+    }
+
+    /**
+     * The cheapest free room in Melbourne skips booked and out of area rooms without sorting every room.
+     */
+    @Test
+    public void rooms_LocationAndAvailability_FirstMatchesOnly() {
+        assertThat(index.rooms(SortOrder.LOWEST, SortedRoomIndex.location("vic", " melbourne ", null),
+                roomId -> roomId != 21L, 1)).containsExactly(10L);
+    }
+
+    @Test
+    public void rooms_UnknownLocation_NoRooms() {
+        assertThat(index.rooms(SortOrder.LOWEST, SortedRoomIndex.location(null, "Perth", null), null, 10)).isEmpty();
+        assertThat(index.rooms(SortOrder.LOWEST, SortedRoomIndex.location("VIC", null, "2000"), null, 10)).isEmpty();
+    }
+
+    /**
+     * A hotel moving suburb leaves the old suburb's order and joins the new one.
+     */
+    @Test
+    public void putHotel_Moved_Repartitioned() {
+        index.putHotel(createHotel(3, "Harbour Hotel", 3, State.VIC, "Melbourne", "3000"));
+
+        assertThat(index.rooms(SortOrder.LOWEST, SortedRoomIndex.location(null, "sydney", null), null, 10)).isEmpty();
+        assertThat(index.hotels(SortOrder.LOWEST, SortedRoomIndex.location("VIC", "Melbourne", "3000"), null, 10))
+                .containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    public void rooms_Facets() {
+        assertThat(index.rooms(SortOrder.LOWEST,
+                SortedRoomIndex.facets(State.VIC, null, RoomType.Economy, PriceBand.FROM_100), null, 10))
+                .containsExactly(20L);
+    }
+
+    @Test
+    public void hotels_OrderedByFirstRoom() {
+        assertThat(index.hotels(SortOrder.LOWEST, any(), null, 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.hotels(SortOrder.LOWEST, any(), roomId -> roomId != 21L, 10)).containsExactly(3L, 1L, 2L);
+        assertThat(index.hotels(SortOrder.NAME, any(), null, 2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void putRoom_Changed_Resorted() {
+        index.putRoom(11L, 1L, "Y2", RoomType.Luxury, BigDecimal.valueOf(10));
+        index.removeRoom(30L);
+
+        assertThat(index.rooms(SortOrder.LOWEST, any(), null, 10)).containsExactly(11L, 21L, 10L, 20L);
+    }
+
+    @Test
+    public void putHotel_Changed_RoomsResorted() {
+        index.putHotel(createHotel(3, "Harbour Hotel", 5, State.NSW, "Sydney", "2000"));
+
+        assertThat(index.rooms(SortOrder.STARS, any(), null, 10)).containsExactly(30L, 21L, 20L, 10L, 11L);
+    }
+}
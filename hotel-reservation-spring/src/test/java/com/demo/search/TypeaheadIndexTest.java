@@ -0,0 +1,99 @@
+package com.demo.search;
+
+import com.demo.domain.Hotel;
+import com.demo.domain.location.Address;
+import com.demo.domain.location.Postcode;
+import com.demo.domain.location.State;
+import com.demo.dto.TypeaheadDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class TypeaheadIndexTest {
+
+    private TypeaheadIndex index;
+
+    private static Hotel createHotel(long id, String name, State state, String suburb, String postcode) {
+        Hotel hotel = new Hotel(name, new Address(name, "33 kent street", null, state, suburb,
+                new Postcode(postcode)), 4, "hotel" + id + "@hotel.com");
+        hotel.setId(id);
+        return hotel;
+    }
+
+    @Before
+    public void setUp() {
+        index = new TypeaheadIndex();
+        index.load(Arrays.asList(
+                createHotel(1, "Hotel Royal", State.VIC, "Melbourne", "3000"),
+                createHotel(2, "Melrose Lodge", State.VIC, "Melbourne", "3000"),
+                createHotel(3, "Hotel Ryde", State.NSW, "North Ryde", "2113"),
+                createHotel(4, "Summer Inn", State.VIC, "Summer West", "3500")));
+    }
+
+    @Test
+    public void search_MatchesPlacesAndHotelsByPrefix() {
+        assertThat(index.search("mel", 10))
+                .extracting(TypeaheadDTO::getType, TypeaheadDTO::getLabel, TypeaheadDTO::getHotels)
+                .containsExactly(
+                        tuple(TypeaheadDTO.Type.SUBURB, "Melbourne", 2),
+                        tuple(TypeaheadDTO.Type.HOTEL, "Melrose Lodge", 1));
+    }
+
+    /**
+     * Any word can match, not just the first. Places come before hotels with the same key.
+     */
+    @Test
+    public void search_MatchesLaterWords() {
+        assertThat(index.search("RYDE", 10)).extracting(TypeaheadDTO::getLabel)
+                .containsExactly("North Ryde", "Hotel Ryde");
+    }
+
+    @Test
+    public void search_Postcode() {
+        assertThat(index.search("30", 10))
+                .extracting(TypeaheadDTO::getType, TypeaheadDTO::getLabel, TypeaheadDTO::getHotels)
+                .containsExactly(tuple(TypeaheadDTO.Type.POSTCODE, "3000", 2));
+    }
+
+    @Test
+    public void search_LimitsResults() {
+        assertThat(index.search("hotel", 1)).hasSize(1);
+        assertThat(index.search("h", 10)).extracting(TypeaheadDTO::getHotelId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    public void search_BlankOrNoMatch_Empty() {
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(index.search("adelaide", 10)).isEmpty();
+    }
+
+    /**
+     * A changed hotel is found by its new name and suburb only.
+     */
+    @Test
+    public void put_ChangedHotel_ReplacesTerms() {
+        index.put(createHotel(4, "Winter Inn", State.VIC, "Brunswick", "3056"));
+
+        assertThat(index.search("summer", 10)).isEmpty();
+        assertThat(index.search("winter", 10)).extracting(TypeaheadDTO::getHotelId).containsExactly(4L);
+        assertThat(index.search("bruns", 10)).extracting(TypeaheadDTO::getLabel).containsExactly("Brunswick");
+    }
+
+    @Test
+    public void search_ManyHotels_StillFirstKeysInOrder() {
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            hotels.add(createHotel(i, String.format("Hotel %05d", i), State.VIC, "Melbourne", "3000"));
+        }
+        index.load(hotels);
+
+        assertThat(index.search("hotel 0000", 3)).extracting(TypeaheadDTO::getLabel)
+                .containsExactly("Hotel 00000", "Hotel 00001", "Hotel 00002");
+    }
+}